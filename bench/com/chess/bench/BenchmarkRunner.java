@@ -0,0 +1,122 @@
+package com.chess.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * BenchmarkRunner measures the throughput and allocation rate of an 
+ * Operation.  It follows the JMH throughput mode: warmup iterations let 
+ * the JIT compile the code, then each measured iteration runs the operation
+ * for a fixed time.  Bytes per operation come from the allocation counter 
+ * of the running thread, like the JMH GC profiler
+ * @author bradley
+ *
+ */
+public class BenchmarkRunner {
+	private static final int BATCH = 64;
+	private static final String FORMAT = "%-40s %6s %16s %16s %12s%n";
+	
+	private int warmupIterations;
+	private int iterations;
+	private long iterationNanos;
+	private volatile int sink;
+	
+	/**
+	 * 
+	 * @param warmupIterations the iterations run before measuring
+	 * @param iterations the iterations measured
+	 * @param iterationMillis the time each iteration runs for
+	 * @throws IllegalArgumentException
+	 */
+	public BenchmarkRunner(int warmupIterations, int iterations, long iterationMillis) 
+			throws IllegalArgumentException {
+		if(warmupIterations < 0 || iterations < 1 || iterationMillis < 1) {
+			throw new IllegalArgumentException("the iteration settings are out of range");
+		}
+		
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.iterationNanos = iterationMillis * 1000000L;
+	}
+	
+	/**
+	 * 
+	 * @return the bytes allocated by the current thread, -1 if the JVM can not tell
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		long bytes = -1;
+		
+		if(bean instanceof com.sun.management.ThreadMXBean) {
+			bytes = ((com.sun.management.ThreadMXBean)bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		
+		return bytes;
+	}
+	
+	/**
+	 * Runs the operation in batches until the iteration time is used up
+	 * @return the number of operations run
+	 */
+	private long iterate(Operation operation) {
+		long operations = 0, end = System.nanoTime() + iterationNanos;
+		int consumed = 0;
+		
+		do {
+			for(int i = 0; i < BATCH; i++) {
+				consumed += operation.run();
+			}
+			
+			operations += BATCH;
+		} while(System.nanoTime() < end);
+		
+		sink += consumed;
+		
+		return operations;
+	}
+	
+	/**
+	 * Prints the column headings of the results
+	 */
+	public void printHeader() {
+		System.out.printf(Locale.ROOT, FORMAT, "Benchmark", "Cnt", "ops/s", "Error", "B/op");
+	}
+	
+	/**
+	 * Measures an operation and prints a line with its results
+	 * @param name the name printed for the benchmark
+	 * @param operation the operation to measure
+	 * @return the mean operations per second
+	 */
+	public double measure(String name, Operation operation) {
+		double[] scores = new double[iterations];
+		long operations = 0, bytes = 0;
+		double mean = 0, variance = 0;
+		
+		for(int i = 0; i < warmupIterations; i++) {
+			iterate(operation);
+		}
+		
+		for(int i = 0; i < iterations; i++) {
+			long startBytes = allocatedBytes(), start = System.nanoTime();
+			long count = iterate(operation);
+			long elapsed = System.nanoTime() - start;
+			
+			bytes += allocatedBytes() - startBytes;
+			operations += count;
+			scores[i] = count * 1e9 / elapsed;
+			mean += scores[i] / iterations;
+		}
+		
+		for(double score:scores) {
+			variance += (score - mean) * (score - mean) / Math.max(iterations - 1, 1);
+		}
+		
+		System.out.printf(Locale.ROOT, FORMAT, name, iterations, String.format(Locale.ROOT, "%.1f", mean),
+				String.format(Locale.ROOT, "+- %.1f", 2 * Math.sqrt(variance)),//About a 95% interval
+				allocatedBytes() < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", (double)bytes / operations));
+		
+		return mean;
+	}
+}
@@ -0,0 +1,21 @@
+package com.chess.bench;
+
+/**
+ * Runs every benchmark and prints the results, the arguments are:
+ * [warmup iterations] [iterations] [iteration milliseconds]
+ * @author bradley
+ *
+ */
+public class Benchmarks {
+	
+	public static void main(String[] args) {
+		int warmupIterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		long iterationMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+		BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, iterations, iterationMillis);
+		
+		runner.printHeader();
+		RuleProcessorBenchmarks.run(runner);
+		BoardBenchmarks.run(runner);
+	}
+}
@@ -0,0 +1,58 @@
+package com.chess.bench;
+
+import java.util.List;
+import com.chess.board.Board;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+
+/**
+ * Measures the Board operations on the corpus positions.  makeMove changes
+ * the board, so it is measured by replaying a whole opening on a new board, 
+ * the cost of the new board alone is measured next to it
+ * @author bradley
+ *
+ */
+public class BoardBenchmarks {
+	private static final Player PLAYER1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+	private static final Player PLAYER2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+	
+	private BoardBenchmarks() {
+	}
+	
+	/**
+	 * 
+	 * @param runner the runner that measures and prints
+	 */
+	public static void run(BenchmarkRunner runner) {
+		List<Board> boards = Positions.all();
+		Board[] positions = boards.toArray(new Board[boards.size()]);
+		Player[] players = { PLAYER1, PLAYER2 };
+		int[] index = new int[1];
+		
+		runner.measure("Board.<init>", () -> new Board(PLAYER1, PLAYER2).getOrderedCells().size());
+		
+		runner.measure("Board.makeMove (new Board + 16 ply)", () -> {
+			String[] game = Positions.GAMES[index[0]++ % Positions.GAMES.length];
+			Board board = new Board(PLAYER1, PLAYER2);
+			
+			for(String move:game) {
+				board.makeMove(move);
+			}
+			
+			return board.getOrderedCells().size();
+		});
+		
+		runner.measure("Board.kingIsInCheck", () -> {
+			int i = index[0]++ & Integer.MAX_VALUE;
+			
+			return positions[i % positions.length].kingIsInCheck(players[i & 1]) ? 1 : 0;
+		});
+		
+		runner.measure("Board.isCheckMate", () -> {
+			int i = index[0]++ & Integer.MAX_VALUE;
+			
+			return positions[i % positions.length].isCheckMate(players[i & 1]) ? 1 : 0;
+		});
+	}
+}
@@ -0,0 +1,15 @@
+package com.chess.bench;
+
+/**
+ * Operation is one call of the code being measured
+ * @author bradley
+ *
+ */
+public interface Operation {
+	/**
+	 * Runs the code being measured once
+	 * @return any value that depends on the work done, it is consumed so the 
+	 *  work can not be optimized away
+	 */
+	int run();
+}
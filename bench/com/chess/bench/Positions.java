@@ -0,0 +1,121 @@
+package com.chess.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.chess.board.Board;
+import com.chess.board.Cell;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+
+/**
+ * Positions is the fixed corpus the benchmarks run on.  Middlegames are 
+ * reached by playing openings from the start, endgames are set on an 
+ * empty board.  Upper is to move in every position
+ * @author bradley
+ *
+ */
+public final class Positions {
+	public static final String[][] GAMES = {
+		{ "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6", 
+		  "d2d3", "d7d6", "e1g1", "e8g8", "c1g5", "h7h6", "g5h4", "c8g4" },
+		{ "d2d4", "d7d5", "c2c4", "e7e6", "b1c3", "g8f6", "c1g5", "f8e7", 
+		  "e2e3", "e8g8", "g1f3", "b8d7", "a1c1", "c7c6", "f1d3", "d5c4" },
+		{ "e2e4", "c7c5", "g1f3", "d7d6", "d2d4", "c5d4", "f3d4", "g8f6", 
+		  "b1c3", "a7a6", "c1e3", "e7e5", "d4b3", "c8e6", "f2f3", "f8e7" }
+	};
+	
+	/**
+	 * Each piece is: Ability ordinal, 0 for Upper or 1 for Lower, x and y
+	 */
+	private static final int[][][] ENDGAMES = {
+		{ {5, 0, 7, 2}, {3, 0, 1, 7}, {0, 0, 6, 2}, {0, 0, 7, 3}, {0, 0, 8, 4},
+		  {5, 1, 7, 8}, {3, 1, 1, 1}, {0, 1, 6, 7}, {0, 1, 7, 6}, {0, 1, 8, 5} },
+		{ {5, 0, 4, 4}, {0, 0, 3, 4}, {0, 0, 6, 4}, {0, 0, 8, 3},
+		  {5, 1, 5, 6}, {0, 1, 3, 6}, {0, 1, 7, 6}, {0, 1, 8, 6} },
+		{ {5, 0, 8, 1}, {4, 0, 4, 4}, {0, 0, 1, 3}, {0, 0, 7, 2},
+		  {5, 1, 7, 7}, {4, 1, 2, 2}, {0, 1, 2, 5}, {0, 1, 6, 7} },
+		{ {5, 0, 8, 1}, {2, 0, 3, 3}, {1, 0, 5, 5},
+		  {5, 1, 7, 3}, {3, 1, 1, 2} }
+	};
+	
+	private Positions() {
+	}
+	
+	private static Player[] createPlayers() {
+		return new Player[] { new Player(PlayerColor.Upper, PlayerType.Manual, "player 1"),
+				new Player(PlayerColor.Lower, PlayerType.Manual, "player 2") };
+	}
+	
+	/**
+	 * 
+	 * @param game the moves to play
+	 * @return a new board with the moves played
+	 */
+	public static Board play(String[] game) {
+		Player[] players = createPlayers();
+		Board board = new Board(players[0], players[1]);
+		
+		for(String move:game) {
+			board.makeMove(move);
+		}
+		
+		return board;
+	}
+	
+	/**
+	 * 
+	 * @return a board for each game in GAMES
+	 */
+	public static List<Board> middlegames() {
+		List<Board> boards = new ArrayList<>();
+		
+		for(String[] game:GAMES) {
+			boards.add(play(game));
+		}
+		
+		return boards;
+	}
+	
+	/**
+	 * 
+	 * @return a board for each endgame
+	 */
+	public static List<Board> endgames() {
+		List<Board> boards = new ArrayList<>();
+		Ability[] abilities = Ability.values();
+		
+		for(int[][] endgame:ENDGAMES) {
+			Player[] players = createPlayers();
+			Board board = new Board(players[0], players[1]);
+			List<Cell> cells = board.getOrderedCells();
+			
+			for(Cell cell:cells) {
+				cell.setPiece(null);
+			}
+			
+			for(int[] piece:endgame) {
+				cells.get((piece[3] - 1) * 8 + (piece[2] - 1))
+					.setPiece(new Piece(players[piece[1]], abilities[piece[0]]));
+			}
+			
+			boards.add(board);
+		}
+		
+		return boards;
+	}
+	
+	/**
+	 * 
+	 * @return every middlegame and endgame
+	 */
+	public static List<Board> all() {
+		List<Board> boards = middlegames();
+		
+		boards.addAll(endgames());
+		
+		return boards;
+	}
+}
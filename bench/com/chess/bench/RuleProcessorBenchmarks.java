@@ -0,0 +1,103 @@
+package com.chess.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.chess.board.Board;
+import com.chess.board.Cell;
+import com.chess.board.Move;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.rules.BishopProcessor;
+import com.chess.rules.KingProcessor;
+import com.chess.rules.KnightProcessor;
+import com.chess.rules.PawnProcessor;
+import com.chess.rules.QueenProcessor;
+import com.chess.rules.RookProcessor;
+import com.chess.rules.RuleProcessor;
+
+/**
+ * Measures RuleProcessor.GetMoveResult.  Every benchmark cycles through the 
+ * moves from each cell holding the processor's Ability to every other cell 
+ * of the corpus positions, so legal and illegal moves are mixed the way the 
+ * board asks for them
+ * @author bradley
+ *
+ */
+public class RuleProcessorBenchmarks {
+	
+	/**
+	 * Calls GetMoveResult for one Move after another
+	 */
+	private static class MoveResultOperation implements Operation {
+		private RuleProcessor processor;
+		private List<Move> moves;
+		private List<List<Cell>> cells;
+		private long[] occupied;
+		private int index;
+		
+		MoveResultOperation(RuleProcessor processor, Ability ability, List<Board> boards) {
+			List<Long> occupancy = new ArrayList<>();
+			
+			this.processor = processor;
+			moves = new ArrayList<>();
+			cells = new ArrayList<>();
+			
+			for(Board board:boards) {
+				List<Cell> boardCells = board.getOrderedCells();
+				
+				for(Cell from:boardCells) {
+					Piece piece = from.getPiece();
+					
+					if(piece != null && piece.getAbility() == ability) {
+						for(Cell to:boardCells) {
+							if(to != from) {
+								moves.add(new Move(from, to));
+								cells.add(boardCells);
+								occupancy.add(RuleProcessor.occupancyOf(boardCells));
+							}
+						}
+					}
+				}
+			}
+			
+			occupied = new long[occupancy.size()];
+			
+			for(int i = 0; i < occupied.length; i++) {
+				occupied[i] = occupancy.get(i);
+			}
+		}
+		
+		@Override
+		public int run() {
+			int i = index;
+			
+			index = i + 1 == occupied.length ? 0 : i + 1;
+			
+			return processor.GetMoveResult(cells.get(i), occupied[i], moves.get(i)) != null ? 1 : 0;
+		}
+	}
+	
+	private RuleProcessorBenchmarks() {
+	}
+	
+	/**
+	 * 
+	 * @param runner the runner that measures and prints
+	 */
+	public static void run(BenchmarkRunner runner) {
+		List<Board> boards = Positions.all();
+		
+		runner.measure("PawnProcessor.GetMoveResult", 
+				new MoveResultOperation(new PawnProcessor(), Ability.Pawn, boards));
+		runner.measure("KnightProcessor.GetMoveResult", 
+				new MoveResultOperation(new KnightProcessor(), Ability.Knight, boards));
+		runner.measure("BishopProcessor.GetMoveResult", 
+				new MoveResultOperation(new BishopProcessor(), Ability.Bishop, boards));
+		runner.measure("RookProcessor.GetMoveResult", 
+				new MoveResultOperation(new RookProcessor(), Ability.Rook, boards));
+		runner.measure("QueenProcessor.GetMoveResult", 
+				new MoveResultOperation(new QueenProcessor(), Ability.Queen, boards));
+		runner.measure("KingProcessor.GetMoveResult", 
+				new MoveResultOperation(new KingProcessor(), Ability.King, boards));
+	}
+}
@@ -1,6 +1,15 @@
 package com.chess;
 
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import com.chess.board.BitBoard;
+import com.chess.board.BoardActions;
+import com.chess.board.Perft;
 import com.chess.console.LinuxConsoleController;
+import com.chess.engine.Engine;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
 
 /**
  * This is where the Chess application gets kicked off
@@ -8,11 +17,156 @@ import com.chess.console.LinuxConsoleController;
  *
  */
 public class EntryPoint {
-
+	private static final String[][] GAMES = { {}, { "e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6" }, 
+			{ "d2d4", "d7d5", "c2c4", "e7e6", "b1c3", "g8f6", "c1g5", "f8e7" } };
+	
+	/**
+	 * Prints the perft divide of the starting position and the nodes per 
+	 * second, the arguments are: perft [depth] [parallel]
+	 * @param args the command line arguments
+	 */
+	private static void runPerft(String[] args) {
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		boolean parallel = args.length > 2 && args[2].equals("parallel");
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		long nodes = 0, start = System.nanoTime();
+		
+		Map<String, Long> divide = parallel ? 
+				Perft.parallelDivide(board, depth, ForkJoinPool.commonPool()) : Perft.divide(board, depth);
+		
+		long elapsed = Math.max(System.nanoTime() - start, 1);
+		
+		for(Map.Entry<String, Long> entry:divide.entrySet()) {
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			nodes += entry.getValue();
+		}
+		
+		System.out.println();
+		System.out.println("nodes: " + nodes);
+		System.out.println("nodes/sec: " + nodes * 1000000000L / elapsed);
+	}
+	
+	/**
+	 * Searches each game's position to the engine's depth
+	 * @return the nanoseconds and the nodes searched
+	 */
+	private static long[] searchGames(Engine engine, String[][] games) {
+		long[] result = new long[2];
+		
+		for(String[] game:games) {
+			Player player1 = new Player(PlayerColor.Upper, PlayerType.Auto, "player 1");
+			Player player2 = new Player(PlayerColor.Lower, PlayerType.Auto, "player 2");
+			BoardActions board = new BitBoard(player1, player2);
+			
+			for(String move:game) {
+				board.makeMove(move);
+			}
+			
+			engine.newGame();
+			
+			long start = System.nanoTime();
+			
+			engine.bestMove(board);
+			result[0] += System.nanoTime() - start;
+			result[1] += engine.getNodes();
+		}
+		
+		engine.shutdown();
+		
+		return result;
+	}
+	
+	/**
+	 * Prints the time to depth and nodes per second of one thread and of
+	 * many threads over a few positions, the arguments are: 
+	 * speedup [depth] [threads]
+	 * @param args the command line arguments
+	 */
+	private static void runSpeedup(String[] args) {
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long[] single = null, many;
+		
+		for(int i = 0; i < 2; i++) {//The first run only warms up the JIT
+			single = searchGames(new Engine(depth, 0, 64, 1), GAMES);
+		}
+		
+		many = searchGames(new Engine(depth, 0, 64, threads), GAMES);
+		
+		for(long[] run:new long[][] { single, many }) {
+			System.out.println("threads: " + (run == single ? 1 : threads) + " time to depth " + depth + 
+					": " + run[0] / 1000000L + " ms nodes/sec: " + run[1] * 1000000000L / Math.max(run[0], 1));
+		}
+		
+		System.out.println("speedup: " + String.format("%.2f", (double)single[0] / Math.max(many[0], 1)));
+	}
+	
+	/**
+	 * Prints the time to depth and nodes of the search with every pruning 
+	 * technique against the search with only the ones given (see 
+	 * Engine.setPruning), the arguments are: selective [depth] [pruning]
+	 * @param args the command line arguments
+	 */
+	private static void runSelective(String[] args) {
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		int pruning = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+		Engine engine = new Engine(depth, 0, 64, 1);
+		long[] all = null, some;
+		
+		for(int i = 0; i < 2; i++) {//The first run only warms up the JIT
+			all = searchGames(new Engine(depth, 0, 64, 1), GAMES);
+		}
+		
+		engine.setPruning(pruning);
+		some = searchGames(engine, GAMES);
+		
+		for(long[] run:new long[][] { all, some }) {
+			System.out.println("pruning: " + (run == all ? Engine.ALL_PRUNING : pruning) + " time to depth " + 
+					depth + ": " + run[0] / 1000000L + " ms nodes: " + run[1]);
+		}
+	}
+	
+	private static PlayerType parsePlayerType(String arg) {
+		return arg.equalsIgnoreCase("auto") ? PlayerType.Auto : PlayerType.Manual;
+	}
+	
+	/**
+	 * Plays a game in the console, the arguments are: 
+	 * [manual|auto] [manual|auto] [depth] [milliseconds per move]
+	 * @param args the command line arguments
+	 * @return the application playing the game
+	 */
+	private static Application createGame(String[] args) {
+		PlayerType player1Type = args.length > 0 ? parsePlayerType(args[0]) : PlayerType.Manual;
+		PlayerType player2Type = args.length > 1 ? parsePlayerType(args[1]) : PlayerType.Manual;
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+		long moveTime = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+		Engine engine = null;//Only Auto players need one
+		
+		if(player1Type == PlayerType.Auto || player2Type == PlayerType.Auto) {
+			engine = new Engine(depth, moveTime);
+		}
+		
+		return new LinuxConsoleController(player1Type, player2Type, engine);
+	}
+	
 	public static void main(String[] args) {
-		Application app = new LinuxConsoleController();
-		app.initialize();
-		app.execute();
+		if(args.length > 0 && args[0].equals("perft")) {
+			runPerft(args);
+		}
+		else if(args.length > 0 && args[0].equals("speedup")) {
+			runSpeedup(args);
+		}
+		else if(args.length > 0 && args[0].equals("selective")) {
+			runSelective(args);
+		}
+		else {
+			Application app = createGame(args);
+			app.initialize();
+			app.execute();
+		}
 	}
 
 }
@@ -0,0 +1,1322 @@
+package com.chess.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.rules.Rule;
+import com.chess.rules.RuleResult;
+import static com.chess.rules.RuleConstants.*;
+
+/**
+ * Encapsulates the logical actions and properties of a Chess Board as twelve
+ * 64-bit piece boards plus occupancy masks.  Squares follow the order of the
+ * cells, so square 0 is (1, 1) and square 63 is (8, 8). <br>
+ * The cells are only built when they are asked for and are kept in sync from
+ * then on, changing a piece on one of them changes the bit boards as well.
+ * @author bradley
+ *
+ */
+public class BitBoard implements BoardActions, PositionSource {
+	public static final int UPPER = 0;
+	public static final int LOWER = 1;
+	
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+	
+	public static final int EMPTY = -1;
+	public static final int NO_SQUARE = -1;
+	
+	public static final int UPPER_KING_SIDE = 1;
+	public static final int UPPER_QUEEN_SIDE = 2;
+	public static final int LOWER_KING_SIDE = 4;
+	public static final int LOWER_QUEEN_SIDE = 8;
+	
+	public static final int MAX_MOVES = 256;
+	public static final int MAX_PLY = 1024;
+	
+	private static final Ability[] ABILITIES = Ability.values();
+	private static final int CAPTURES = 1;//Captures and promotions
+	private static final int QUIETS = 2;//Everything else
+	private static final int ALL = CAPTURES | QUIETS;
+	private static final long PROMOTION_ROWS = 0xFF000000000000FFL;
+	private static final int[] CASTLING_MASK = createCastlingMask();
+	private static final Rule VALID_RULE = new Rule(VALID_MOVE, null, -1);
+	private static final Rule EN_PASSANT_RULE = new Rule(EN_PASSANT, null, -1);
+	private static final Rule CASTLED_RULE = new Rule(CASTLED, null, -1);
+	private static final Rule PROMOTION_RULE = new Rule(PROMOTION_REQUIRED, null, -1);
+	
+	private Player[] players;
+	private int playerTurn;
+	private long[] pieces;
+	private long[] occupancy;
+	private long occupied;
+	private int[] mailbox;
+	private int[][] pieceSquares;//Indexed by piece, the first pieceCounts[piece] are in use
+	private int[] pieceCounts;
+	private int[] listIndex;//Indexed by square, where the square is in its piece's list
+	private int castlingRights;
+	private int enPassantSquare;
+	private int halfmoveClock;
+	private long key;
+	private long pawnKey;//Pawns only, for the pawn structure
+	private int middlegame;//Upper less Lower, see PieceSquareTables
+	private int endgame;
+	private int phase;
+	private List<Cell> cells;
+	private boolean syncing;
+	private int[] undoMoves;
+	private int[] undoCaptured;
+	private int[] undoState;
+	private long[] undoKeys;
+	private int ply;
+	
+	private static int[] createCastlingMask() {
+		int[] mask = new int[64];
+		
+		for(int i = 0; i < 64; i++) {
+			mask[i] = UPPER_KING_SIDE | UPPER_QUEEN_SIDE | LOWER_KING_SIDE | LOWER_QUEEN_SIDE;
+		}
+		
+		mask[0] &= ~UPPER_QUEEN_SIDE;
+		mask[4] &= ~(UPPER_KING_SIDE | UPPER_QUEEN_SIDE);
+		mask[7] &= ~UPPER_KING_SIDE;
+		mask[56] &= ~LOWER_QUEEN_SIDE;
+		mask[60] &= ~(LOWER_KING_SIDE | LOWER_QUEEN_SIDE);
+		mask[63] &= ~LOWER_KING_SIDE;
+		
+		return mask;
+	}
+	
+	private static int squareOf(Location location) {
+		return (location.getYIndex() - 1) * 8 + (location.getXIndex() - 1);
+	}
+	
+	private Player playerOf(int color) {
+		return players[0].getColor().ordinal() == color ? players[0] : players[1];
+	}
+	
+	private void putPiece(int piece, int square) {
+		long mask = 1L << square;
+		
+		pieces[piece] |= mask;
+		occupancy[colorOf(piece)] |= mask;
+		occupied |= mask;
+		mailbox[square] = piece;
+		key ^= Zobrist.piece(piece, square);
+		middlegame += PieceSquareTables.middlegame(piece, square);
+		endgame += PieceSquareTables.endgame(piece, square);
+		phase += PieceSquareTables.phaseOf(piece);
+		
+		listIndex[square] = pieceCounts[piece];
+		pieceSquares[piece][pieceCounts[piece]++] = square;
+		
+		if(abilityOf(piece) == PAWN) {
+			pawnKey ^= Zobrist.piece(piece, square);
+		}
+	}
+	
+	private void removePiece(int square) {
+		int piece = mailbox[square];
+		
+		if(piece != EMPTY) {
+			long mask = ~(1L << square);
+			
+			pieces[piece] &= mask;
+			occupancy[colorOf(piece)] &= mask;
+			occupied &= mask;
+			mailbox[square] = EMPTY;
+			key ^= Zobrist.piece(piece, square);
+			middlegame -= PieceSquareTables.middlegame(piece, square);
+			endgame -= PieceSquareTables.endgame(piece, square);
+			phase -= PieceSquareTables.phaseOf(piece);
+			
+			int last = pieceSquares[piece][--pieceCounts[piece]], index = listIndex[square];
+			
+			pieceSquares[piece][index] = last;//The last square fills the gap
+			listIndex[last] = index;
+			
+			if(abilityOf(piece) == PAWN) {
+				pawnKey ^= Zobrist.piece(piece, square);
+			}
+		}
+	}
+	
+	/**
+	 * The en passant square is only part of the key when a pawn of the side
+	 * to move can take en passant, so a double step nobody can answer does
+	 * not change the key
+	 * @return the en passant part of the key
+	 */
+	private long enPassantKey() {
+		long key = 0L;
+		
+		if(enPassantSquare != NO_SQUARE) {
+			int color = getSideToMove();
+			
+			if((Attacks.pawn(color ^ 1, enPassantSquare) & pieces[pieceOf(color, PAWN)]) != 0) {
+				key = Zobrist.enPassant(enPassantSquare);
+			}
+		}
+		
+		return key;
+	}
+	
+	private void initPieces(int color) {
+		int backRow = color == UPPER ? 0 : 7, pawnRow = color == UPPER ? 1 : 6;
+		int[] order = { ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK };
+		
+		for(int x = 0; x < 8; x++) {
+			putPiece(pieceOf(color, order[x]), backRow * 8 + x);
+			putPiece(pieceOf(color, PAWN), pawnRow * 8 + x);
+		}
+	}
+	
+	private List<Cell> createCells() {
+		List<Cell> newCells = new ArrayList<>();
+		CellObserver observer = (cell, previous, current) -> pieceChanged(cell, current);
+		
+		for(int i = 0; i < 64; i++) {
+			CellColor color = ((i % 8 + i / 8) % 2 == 0) ? CellColor.White : CellColor.Black;
+			Cell cell = new Cell(color, new Location((i % 8) + 1, i / 8 + 1));
+			int piece = mailbox[i];
+			
+			if(piece != EMPTY) {
+				cell.setPiece(new Piece(playerOf(colorOf(piece)), ABILITIES[abilityOf(piece)]));
+			}
+			
+			cell.setObserver(observer);
+			newCells.add(cell);
+		}
+		
+		return newCells;
+	}
+	
+	/**
+	 * Keeps the bit boards in sync when a piece is changed through a cell
+	 * @param cell the cell that was changed
+	 * @param current the piece now occupying the cell
+	 */
+	private void pieceChanged(Cell cell, Piece current) {
+		if(!syncing) {
+			setPieceAt(squareOf(cell.getLocation()), current);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the squares a pawn can move to, not including en passant
+	 */
+	private long pawnTargets(int color, int square) {
+		long targets = Attacks.pawn(color, square) & occupancy[color ^ 1];
+		int forward = color == UPPER ? 8 : -8, one = square + forward;
+		
+		if(one >= 0 && one < 64 && mailbox[one] == EMPTY) {
+			targets |= 1L << one;
+			
+			if(square / 8 == (color == UPPER ? 1 : 6) && mailbox[one + forward] == EMPTY) {
+				targets |= 1L << (one + forward);
+			}
+		}
+		
+		return targets;
+	}
+	
+	/**
+	 * 
+	 * @param square the square of the piece
+	 * @return every square the piece could move to, ignoring castling, 
+	 *  en passant and check
+	 */
+	private long targetsOf(int square) {
+		int piece = mailbox[square], color = colorOf(piece);
+		long targets;
+		
+		switch(abilityOf(piece)) {
+		case PAWN:
+			targets = pawnTargets(color, square);
+			break;
+		case KNIGHT:
+			targets = Attacks.knight(square);
+			break;
+		case BISHOP:
+			targets = Attacks.bishop(square, occupied);
+			break;
+		case ROOK:
+			targets = Attacks.rook(square, occupied);
+			break;
+		case QUEEN:
+			targets = Attacks.queen(square, occupied);
+			break;
+		default:
+			targets = Attacks.king(square);
+		}
+		
+		return targets & ~occupancy[color];
+	}
+	
+	/**
+	 * 
+	 * @param from the king's square
+	 * @param to the king's destination
+	 * @return the castling right the move requires, 0 when it is not a castle
+	 */
+	private int castlingRightOf(int from, int to) {
+		int right = 0;
+		
+		if(from == 4 && to == 6) {
+			right = UPPER_KING_SIDE;
+		}
+		else if(from == 4 && to == 2) {
+			right = UPPER_QUEEN_SIDE;
+		}
+		else if(from == 60 && to == 62) {
+			right = LOWER_KING_SIDE;
+		}
+		else if(from == 60 && to == 58) {
+			right = LOWER_QUEEN_SIDE;
+		}
+		
+		return right;
+	}
+	
+	/**
+	 * The right is held, the Rook is home and nothing stands between them
+	 */
+	private boolean isCastlePathClear(int color, int from, int to, int right) {
+		boolean kingSide = to > from;
+		int rookSquare = kingSide ? from + 3 : from - 4;
+		long path = kingSide ? (3L << (from + 1)) : (7L << (from - 3));
+		
+		return (castlingRights & right) != 0 &&
+				mailbox[rookSquare] == pieceOf(color, ROOK) &&
+				(occupied & path) == 0;
+	}
+	
+	/**
+	 * Castling is not allowed out of check or through check, moving into
+	 * check is caught when the move is tried
+	 */
+	private boolean canCastle(int color, int from, int to, int right) {
+		int enemy = color ^ 1;
+		
+		return isCastlePathClear(color, from, to, right) &&
+				!isAttacked(from, enemy) &&
+				!isAttacked(to > from ? from + 1 : from - 1, enemy);
+	}
+	
+	/**
+	 * 
+	 * @param from the square moved from
+	 * @param to the square moved to
+	 * @return the id of the rule the move matches, 0 if there is none
+	 */
+	private int matchRule(int from, int to) {
+		int piece = mailbox[from], color = colorOf(piece), id = 0;
+		int right = abilityOf(piece) == KING ? castlingRightOf(from, to) : 0;
+		
+		if(right != 0) {
+			if(canCastle(color, from, to, right)) {
+				id = CASTLED;
+			}
+		}
+		else if(abilityOf(piece) == PAWN && to == enPassantSquare) {
+			if((Attacks.pawn(color, from) & (1L << to)) != 0) {
+				id = EN_PASSANT;
+			}
+		}
+		else if((targetsOf(from) & (1L << to)) != 0) {
+			id = VALID_MOVE;
+			
+			if(abilityOf(piece) == PAWN && (to / 8 == 0 || to / 8 == 7)) {
+				id = PROMOTION_REQUIRED;
+			}
+		}
+		
+		return id;
+	}
+	
+	/**
+	 * Everything but moving into check, that needs the move made first
+	 * @param move the packed move, without a promotion a pawn reaching the
+	 *  last row becomes a Queen
+	 * @return MoveStatus.OK when the move matches a rule, otherwise why it
+	 *  does not
+	 */
+	private int statusOf(int move) {
+		int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+		int piece = mailbox[from], promotion = PackedMove.getPromotion(move), status = MoveStatus.OK;
+		
+		if(move == PackedMove.NONE) {
+			status = MoveStatus.MALFORMED;
+		}
+		else if(piece == EMPTY || colorOf(piece) != getSideToMove()) {
+			status = MoveStatus.NOT_YOUR_PIECE;
+		}
+		else {
+			int id = matchRule(from, to);
+			
+			if(id == 0) {
+				int right = abilityOf(piece) == KING ? castlingRightOf(from, to) : 0;
+				
+				status = right != 0 && isCastlePathClear(colorOf(piece), from, to, right) ?
+						MoveStatus.CASTLES_THROUGH_CHECK : MoveStatus.ILLEGAL_PATTERN;
+			}
+			else if(promotion != 0 && (id != PROMOTION_REQUIRED || promotion > QUEEN)) {
+				status = MoveStatus.ILLEGAL_PATTERN;
+			}
+		}
+		
+		return status;
+	}
+	
+	private static int captureSquareOf(int from, int to, int id) {
+		return id == EN_PASSANT ? (from / 8) * 8 + to % 8 : to;
+	}
+	
+	/**
+	 * Moves the pieces on the cells, if they were built
+	 */
+	private void updateCells(int move, int id) {
+		if(cells != null) {
+			int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+			int promotion = PackedMove.getPromotion(move);
+			Cell fromCell = cells.get(from), toCell = cells.get(to);
+			Piece moving = fromCell.getPiece();
+			
+			syncing = true;
+			
+			cells.get(captureSquareOf(from, to, id)).setPiece(null);
+			toCell.setPiece(moving);
+			fromCell.setPiece(null);
+			
+			if(id == PROMOTION_REQUIRED) {
+				moving.setAbility(ABILITIES[promotion == 0 ? QUEEN : promotion]);
+			}
+			else if(id == CASTLED) {
+				Cell rookFrom = cells.get(to > from ? from + 3 : from - 4);
+				Cell rookTo = cells.get(to > from ? from + 1 : from - 1);
+				
+				rookTo.setPiece(rookFrom.getPiece());
+				rookFrom.setPiece(null);
+			}
+			
+			syncing = false;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param square the square being attacked
+	 * @param byColor the ordinal of the attacking PlayerColor
+	 * @param blockers the occupied squares to use for sliding pieces
+	 * @return every piece of byColor attacking the square
+	 */
+	private long attackersTo(int square, int byColor, long blockers) {
+		int base = byColor * 6;
+		
+		return (Attacks.knight(square) & pieces[base + KNIGHT]) |
+				(Attacks.king(square) & pieces[base + KING]) |
+				(Attacks.pawn(byColor ^ 1, square) & pieces[base + PAWN]) |
+				(Attacks.bishop(square, blockers) & (pieces[base + BISHOP] | pieces[base + QUEEN])) |
+				(Attacks.rook(square, blockers) & (pieces[base + ROOK] | pieces[base + QUEEN]));
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor
+	 * @param king the square of the color's king
+	 * @return the color's pieces that are the only thing between the king and 
+	 *  an enemy slider
+	 */
+	private long pinnedPieces(int color, int king) {
+		int base = (color ^ 1) * 6;
+		long pinned = 0L;
+		long snipers = (Attacks.rook(king, 0L) & (pieces[base + ROOK] | pieces[base + QUEEN])) |
+				(Attacks.bishop(king, 0L) & (pieces[base + BISHOP] | pieces[base + QUEEN]));
+		
+		while(snipers != 0) {
+			long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+			
+			snipers &= snipers - 1;
+			
+			if(blockers != 0 && (blockers & (blockers - 1)) == 0) {
+				pinned |= blockers & occupancy[color];
+			}
+		}
+		
+		return pinned;
+	}
+	
+	private int addMoves(int[] moves, int count, int from, long targets) {
+		while(targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			
+			targets &= targets - 1;
+			moves[count++] = PackedMove.of(from, to, 0, mailbox[to] != EMPTY ? PackedMove.CAPTURE : 0);
+		}
+		
+		return count;
+	}
+	
+	private int addPawnMoves(int[] moves, int count, int from, long targets) {
+		while(targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			int flags = mailbox[to] != EMPTY ? PackedMove.CAPTURE : 0;
+			
+			targets &= targets - 1;
+			
+			if(to / 8 == 0 || to / 8 == 7) {
+				moves[count++] = PackedMove.of(from, to, QUEEN, flags);
+				moves[count++] = PackedMove.of(from, to, ROOK, flags);
+				moves[count++] = PackedMove.of(from, to, BISHOP, flags);
+				moves[count++] = PackedMove.of(from, to, KNIGHT, flags);
+			}
+			else {
+				if(Math.abs(to - from) == 16) {
+					flags = PackedMove.DOUBLE_PUSH;
+				}
+				
+				moves[count++] = PackedMove.of(from, to, 0, flags);
+			}
+		}
+		
+		return count;
+	}
+	
+	private int addCastleMoves(int[] moves, int count, int color, int king) {
+		int home = color == UPPER ? 4 : 60;
+		
+		if(king == home) {
+			int kingSide = color == UPPER ? UPPER_KING_SIDE : LOWER_KING_SIDE;
+			int queenSide = color == UPPER ? UPPER_QUEEN_SIDE : LOWER_QUEEN_SIDE;
+			
+			if(canCastle(color, home, home + 2, kingSide) && 
+					!isAttacked(home + 2, color ^ 1)) {
+				moves[count++] = PackedMove.of(home, home + 2, 0, PackedMove.CASTLE);
+			}
+			
+			if(canCastle(color, home, home - 2, queenSide) && 
+					!isAttacked(home - 2, color ^ 1)) {
+				moves[count++] = PackedMove.of(home, home - 2, 0, PackedMove.CASTLE);
+			}
+		}
+		
+		return count;
+	}
+	
+	private int generateMoves(int color, int[] moves, boolean legal) {
+		return generateMoves(color, moves, legal, ALL);
+	}
+	
+	/**
+	 * Legal moves are built directly from the checking pieces and the pinned
+	 * pieces, no move is tried on the board to find out if it is legal
+	 * @param color the ordinal of the PlayerColor moving
+	 * @param moves the buffer the moves are written to
+	 * @param legal when false, pins and checks are ignored
+	 * @param kinds CAPTURES, QUIETS or ALL
+	 * @return the number of moves written
+	 */
+	private int generateMoves(int color, int[] moves, boolean legal, int kinds) {
+		int count = 0, them = color ^ 1, king = getKingSquare(color);
+		long own = occupancy[color], checkers = 0L, pinned = 0L, evasions = ~0L;
+		long wanted = kinds == ALL ? ~0L : kinds == CAPTURES ? occupancy[them] : ~occupied;
+		long pawnWanted = kinds == ALL ? ~0L : kinds == CAPTURES ? 
+				occupancy[them] | PROMOTION_ROWS : ~occupied & ~PROMOTION_ROWS;
+		
+		if(king != NO_SQUARE) {
+			long targets = Attacks.king(king) & ~own & wanted;
+			
+			if(legal) {
+				long withoutKing = occupied ^ (1L << king);
+				
+				checkers = attackersTo(king, them, occupied);
+				pinned = pinnedPieces(color, king);
+				
+				if(checkers != 0) {//Block or capture the checking piece
+					evasions = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+				}
+				
+				for(long safe = targets; safe != 0; safe &= safe - 1) {
+					int to = Long.numberOfTrailingZeros(safe);
+					
+					if(attackersTo(to, them, withoutKing) != 0) {
+						targets &= ~(1L << to);
+					}
+				}
+			}
+			
+			count = addMoves(moves, count, king, targets);
+			
+			if(checkers == 0 && (kinds & QUIETS) != 0) {
+				count = addCastleMoves(moves, count, color, king);
+			}
+		}
+		
+		if(Long.bitCount(checkers) > 1) {//Only the King can move out of double check
+			return count;
+		}
+		
+		for(long friends = own & ~pieces[pieceOf(color, KING)]; friends != 0; friends &= friends - 1) {
+			int from = Long.numberOfTrailingZeros(friends);
+			long targets = targetsOf(from) & evasions;
+			
+			if((pinned & (1L << from)) != 0) {
+				targets &= Attacks.line(king, from);
+			}
+			
+			if(abilityOf(mailbox[from]) == PAWN) {
+				count = addPawnMoves(moves, count, from, targets & pawnWanted);
+			}
+			else {
+				count = addMoves(moves, count, from, targets & wanted);
+			}
+		}
+		
+		if(enPassantSquare != NO_SQUARE && color == getSideToMove() && (kinds & CAPTURES) != 0) {
+			int captureSquare = enPassantSquare + (color == UPPER ? -8 : 8);
+			long capturers = Attacks.pawn(them, enPassantSquare) & pieces[pieceOf(color, PAWN)];
+			
+			for(; capturers != 0; capturers &= capturers - 1) {
+				int from = Long.numberOfTrailingZeros(capturers);
+				
+				if(legal && king != NO_SQUARE) {//Both pawns leave their row, so test what it uncovers
+					long after = (occupied ^ (1L << from) ^ (1L << captureSquare)) | 
+							(1L << enPassantSquare);
+					
+					if((attackersTo(king, them, after) & ~(1L << captureSquare)) != 0) {
+						continue;
+					}
+				}
+				
+				moves[count++] = PackedMove.of(from, enPassantSquare, 0, 
+						PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Stops at the first legal move it finds, so check mate and stale mate
+	 * are known without generating every move.  In check only King moves, 
+	 * captures of the checking piece and blocks on its ray are looked at, in
+	 * double check only King moves.  Castling is never needed, a King that 
+	 * can castle can also step towards its Rook
+	 * @param color the ordinal of the PlayerColor moving
+	 * @return if the color has a legal move
+	 */
+	private boolean hasLegalMove(int color) {
+		int them = color ^ 1, king = getKingSquare(color);
+		long checkers = 0L, pinned = 0L, evasions = ~0L;
+		boolean found = false;
+		
+		if(king != NO_SQUARE) {
+			long withoutKing = occupied ^ (1L << king);
+			
+			for(long targets = Attacks.king(king) & ~occupancy[color]; targets != 0 && !found; targets &= targets - 1) {
+				found = attackersTo(Long.numberOfTrailingZeros(targets), them, withoutKing) == 0;
+			}
+			
+			checkers = attackersTo(king, them, occupied);
+			pinned = pinnedPieces(color, king);
+			
+			if(checkers != 0) {
+				evasions = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+			}
+		}
+		
+		if(Long.bitCount(checkers) < 2) {
+			for(long friends = occupancy[color] & ~pieces[pieceOf(color, KING)]; friends != 0 && !found; 
+					friends &= friends - 1) {
+				int from = Long.numberOfTrailingZeros(friends);
+				long targets = targetsOf(from) & evasions;
+				
+				if((pinned & (1L << from)) != 0) {
+					targets &= Attacks.line(king, from);
+				}
+				
+				found = targets != 0;
+			}
+			
+			if(!found && enPassantSquare != NO_SQUARE && color == getSideToMove()) {
+				int captureSquare = enPassantSquare + (color == UPPER ? -8 : 8);
+				long capturers = Attacks.pawn(them, enPassantSquare) & pieces[pieceOf(color, PAWN)];
+				
+				for(; capturers != 0 && !found; capturers &= capturers - 1) {
+					long after = (occupied ^ (1L << Long.numberOfTrailingZeros(capturers)) ^ 
+							(1L << captureSquare)) | (1L << enPassantSquare);
+					
+					found = king == NO_SQUARE || (attackersTo(king, them, after) & ~(1L << captureSquare)) == 0;
+				}
+			}
+		}
+		
+		return found;
+	}
+	
+	private static Rule ruleOf(int id) {
+		Rule rule = VALID_RULE;
+		
+		if(id == EN_PASSANT) {
+			rule = EN_PASSANT_RULE;
+		}
+		else if(id == CASTLED) {
+			rule = CASTLED_RULE;
+		}
+		else if(id == PROMOTION_REQUIRED) {
+			rule = PROMOTION_RULE;
+		}
+		
+		return rule;
+	}
+	
+	public BitBoard(Player player1, Player player2) throws IllegalArgumentException {
+		if(player1 == null) {
+			throw new IllegalArgumentException("player1 is null");
+		}
+		
+		if(player2 == null) {
+			throw new IllegalArgumentException("player2 is null");
+		}
+		
+		if(player1.getColor() == player2.getColor()) {
+			throw new IllegalArgumentException("player1 and player2 have the same color");
+		}
+		
+		players = new Player[] { player1, player2 };
+		playerTurn = 0;
+		
+		pieces = new long[12];
+		occupancy = new long[2];
+		mailbox = new int[64];
+		pieceSquares = new int[12][64];//Cells can put any number of one piece on the board
+		pieceCounts = new int[12];
+		listIndex = new int[64];
+		
+		for(int i = 0; i < 64; i++) {
+			mailbox[i] = EMPTY;
+		}
+		
+		initPieces(UPPER);
+		initPieces(LOWER);
+		
+		castlingRights = UPPER_KING_SIDE | UPPER_QUEEN_SIDE | LOWER_KING_SIDE | LOWER_QUEEN_SIDE;
+		enPassantSquare = NO_SQUARE;
+		key ^= Zobrist.castling(castlingRights);
+		
+		if(getSideToMove() == LOWER) {
+			key ^= Zobrist.side();
+		}
+		
+		halfmoveClock = 0;
+		undoMoves = new int[MAX_PLY];
+		undoCaptured = new int[MAX_PLY];
+		undoState = new int[MAX_PLY];
+		undoKeys = new long[MAX_PLY];
+		ply = 0;
+	}
+	
+	/**
+	 * Copies the position of another board, the copy starts with an empty
+	 * undo stack and builds its own cells
+	 * @param other the board to copy
+	 */
+	private BitBoard(BitBoard other) {
+		players = other.players;
+		playerTurn = other.playerTurn;
+		pieces = other.pieces.clone();
+		occupancy = other.occupancy.clone();
+		occupied = other.occupied;
+		mailbox = other.mailbox.clone();
+		pieceSquares = new int[12][];
+		pieceCounts = other.pieceCounts.clone();
+		listIndex = other.listIndex.clone();
+		
+		for(int piece = 0; piece < 12; piece++) {
+			pieceSquares[piece] = other.pieceSquares[piece].clone();
+		}
+		
+		castlingRights = other.castlingRights;
+		enPassantSquare = other.enPassantSquare;
+		halfmoveClock = other.halfmoveClock;
+		key = other.key;
+		pawnKey = other.pawnKey;
+		middlegame = other.middlegame;
+		endgame = other.endgame;
+		phase = other.phase;
+		undoMoves = new int[MAX_PLY];
+		undoCaptured = new int[MAX_PLY];
+		undoState = new int[MAX_PLY];
+		undoKeys = new long[MAX_PLY];
+		ply = 0;
+	}
+	
+	/**
+	 * Changes the piece on a square the way a cell change would, it gives up
+	 * the castling rights tied to the square and any en passant square
+	 * @param square the square to change
+	 * @param piece the piece now on the square (could be null)
+	 */
+	void setPieceAt(int square, Piece piece) {
+		key ^= enPassantKey() ^ Zobrist.castling(castlingRights);
+		removePiece(square);
+		
+		if(piece != null) {
+			putPiece(pieceOf(piece.getPlayer().getColor().ordinal(),
+					piece.getAbility().ordinal()), square);
+		}
+		
+		castlingRights &= CASTLING_MASK[square];
+		enPassantSquare = NO_SQUARE;
+		key ^= Zobrist.castling(castlingRights);
+	}
+	
+	/**
+	 * Keeps the last move made, its undo entry is dropped so games longer
+	 * than MAX_PLY never fill the undo stack
+	 */
+	void commit() {
+		--ply;
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor
+	 * @param ability the ordinal of the Ability
+	 * @return the piece code stored on the board
+	 */
+	public static int pieceOf(int color, int ability) {
+		return color * 6 + ability;
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code
+	 * @return the ordinal of the PlayerColor
+	 */
+	public static int colorOf(int piece) {
+		return piece / 6;
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code
+	 * @return the ordinal of the Ability
+	 */
+	public static int abilityOf(int piece) {
+		return piece % 6;
+	}
+	
+	/**
+	 * 
+	 * @param square the square to look at
+	 * @return the piece code on the square or EMPTY
+	 */
+	public int getPieceAt(int square) {
+		return mailbox[square];
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code
+	 * @return the bit board of the piece
+	 */
+	public long getPieces(int piece) {
+		return pieces[piece];
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor
+	 * @return the squares occupied by the color
+	 */
+	public long getOccupancy(int color) {
+		return occupancy[color];
+	}
+	
+	/**
+	 * 
+	 * @return every occupied square
+	 */
+	public long getOccupied() {
+		return occupied;
+	}
+	
+	/**
+	 * 
+	 * @return the ordinal of the PlayerColor to move
+	 */
+	public int getSideToMove() {
+		return players[playerTurn].getColor().ordinal();
+	}
+	
+	/**
+	 * 
+	 * @return the castling rights still available
+	 */
+	public int getCastlingRights() {
+		return castlingRights;
+	}
+	
+	/**
+	 * 
+	 * @return the square a pawn can be taken on en passant or NO_SQUARE
+	 */
+	public int getEnPassantSquare() {
+		return enPassantSquare;
+	}
+	
+	/**
+	 * 
+	 * @return the number of moves since the last capture or pawn move
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+	
+	@Override
+	public long getPositionKey() {
+		return key;
+	}
+	
+	/**
+	 * 
+	 * @return the key of the pawns alone, positions with the same pawns on 
+	 *  the same squares have the same pawn key
+	 */
+	public long getPawnKey() {
+		return pawnKey;
+	}
+	
+	/**
+	 * Kept up to date as pieces are put on and taken off squares, so it never
+	 * needs the board scanned
+	 * @return the middlegame material and piece square score, Upper less Lower
+	 */
+	public int getMiddlegameScore() {
+		return middlegame;
+	}
+	
+	/**
+	 * 
+	 * @return the endgame material and piece square score, Upper less Lower
+	 */
+	public int getEndgameScore() {
+		return endgame;
+	}
+	
+	/**
+	 * 
+	 * @return the phase of the game, PieceSquareTables.MAX_PHASE with every
+	 *  piece on the board down to 0 with only Kings and pawns
+	 */
+	public int getPhase() {
+		return phase;
+	}
+	
+	/**
+	 * The copy has nothing in common with the board, so it can be searched
+	 * on another thread
+	 * @return a bit board holding a copy of the position
+	 */
+	@Override
+	public BitBoard copyPosition() {
+		return new BitBoard(this);
+	}
+	
+	/**
+	 * 
+	 * @param board a BitBoard or a Board
+	 * @return a bit board holding a copy of the position of the board
+	 * @throws IllegalArgumentException
+	 */
+	public static BitBoard copyOf(BoardActions board) throws IllegalArgumentException {
+		if(board == null) {
+			throw new IllegalArgumentException("board is null");
+		}
+		
+		if(!(board instanceof PositionSource)) {
+			throw new IllegalArgumentException("board does not keep a position to copy");
+		}
+		
+		return ((PositionSource)board).copyPosition();
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor
+	 * @return the square of the color's king or NO_SQUARE
+	 */
+	public int getKingSquare(int color) {
+		int king = pieceOf(color, KING);
+		
+		return pieceCounts[king] == 0 ? NO_SQUARE : pieceSquares[king][0];
+	}
+	
+	/**
+	 * The piece lists are kept up to date as pieces are put on and taken off
+	 * squares, so going through a piece's squares costs one step per piece
+	 * @param piece the piece code
+	 * @return the number of the pieces on the board
+	 */
+	public int getPieceCount(int piece) {
+		return pieceCounts[piece];
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code
+	 * @param index 0 up to getPieceCount(piece) - 1, the order changes as 
+	 *  pieces are taken
+	 * @return the square of the piece
+	 */
+	public int getPieceSquare(int piece, int index) {
+		return pieceSquares[piece][index];
+	}
+	
+	@Override
+	public boolean isSquareAttacked(int square, int byColor) throws IllegalArgumentException {
+		if(square < 0 || square > 63) {
+			throw new IllegalArgumentException("square is out of range");
+		}
+		
+		if(byColor != UPPER && byColor != LOWER) {
+			throw new IllegalArgumentException("byColor is out of range");
+		}
+		
+		return isAttacked(square, byColor);
+	}
+	
+	/**
+	 * Looks outward from the square with each kind of piece's attacks, a piece
+	 * of byColor standing on one of them attacks the square
+	 * @param square the square being attacked
+	 * @param byColor the ordinal of the attacking PlayerColor
+	 * @return if any piece of byColor attacks the square
+	 */
+	private boolean isAttacked(int square, int byColor) {
+		int base = byColor * 6;
+		
+		return (Attacks.knight(square) & pieces[base + KNIGHT]) != 0 ||
+				(Attacks.king(square) & pieces[base + KING]) != 0 ||
+				(Attacks.pawn(byColor ^ 1, square) & pieces[base + PAWN]) != 0 ||
+				(Attacks.bishop(square, occupied) & (pieces[base + BISHOP] | pieces[base + QUEEN])) != 0 ||
+				(Attacks.rook(square, occupied) & (pieces[base + ROOK] | pieces[base + QUEEN])) != 0;
+	}
+	
+	/**
+	 * Sliding pieces are found through the occupied squares given, so pieces
+	 * taken off the board uncover the pieces behind them
+	 * @param square the square being attacked
+	 * @param occupied the squares taken to hold pieces
+	 * @return the pieces of either color that attack the square
+	 */
+	public long attackersOf(int square, long occupied) {
+		long bishops = pieces[pieceOf(UPPER, BISHOP)] | pieces[pieceOf(LOWER, BISHOP)];
+		long rooks = pieces[pieceOf(UPPER, ROOK)] | pieces[pieceOf(LOWER, ROOK)];
+		long queens = pieces[pieceOf(UPPER, QUEEN)] | pieces[pieceOf(LOWER, QUEEN)];
+		
+		return (Attacks.knight(square) & (pieces[pieceOf(UPPER, KNIGHT)] | pieces[pieceOf(LOWER, KNIGHT)])) |
+				(Attacks.king(square) & (pieces[pieceOf(UPPER, KING)] | pieces[pieceOf(LOWER, KING)])) |
+				(Attacks.pawn(LOWER, square) & pieces[pieceOf(UPPER, PAWN)]) |
+				(Attacks.pawn(UPPER, square) & pieces[pieceOf(LOWER, PAWN)]) |
+				(Attacks.bishop(square, occupied) & (bishops | queens)) |
+				(Attacks.rook(square, occupied) & (rooks | queens));
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor
+	 * @return if the color's king is attacked
+	 */
+	public boolean isInCheck(int color) {
+		int king = getKingSquare(color);
+		
+		return king != NO_SQUARE && isAttacked(king, color ^ 1);
+	}
+	
+	@Override
+	public List<Cell> getOrderedCells() {
+		if(cells == null) {
+			cells = createCells();
+		}
+		
+		return cells;
+	}
+	
+	@Override
+	public boolean kingIsInCheck(Player checkPlayer) throws IllegalArgumentException {
+		if(checkPlayer == null) {
+			throw new IllegalArgumentException("checkPlayer is null");
+		}
+		
+		return isInCheck(checkPlayer.getColor().ordinal());
+	}
+	
+	@Override
+	public boolean isCheckMate(Player checkPlayer) throws IllegalArgumentException {
+		if(checkPlayer == null) {
+			throw new IllegalArgumentException("checkPlayer is null");
+		}
+		
+		int color = checkPlayer.getColor().ordinal();
+		
+		return isInCheck(color) && !hasLegalMove(color);
+	}
+	
+	@Override
+	public boolean isStaleMate(Player checkPlayer) throws IllegalArgumentException {
+		if(checkPlayer == null) {
+			throw new IllegalArgumentException("checkPlayer is null");
+		}
+		
+		int color = checkPlayer.getColor().ordinal();
+		
+		return !isInCheck(color) && !hasLegalMove(color);
+	}
+	
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return generateMoves(getSideToMove(), moves, true);
+	}
+	
+	@Override
+	public int generatePseudoLegalMoves(int[] moves) {
+		return generateMoves(getSideToMove(), moves, false);
+	}
+	
+	/**
+	 * Writes the pseudo legal captures and promotions of the player whose 
+	 * turn it is, so a search can look at them before the quiet moves
+	 * @param moves the buffer the moves are written to, it must hold at least 
+	 *  MAX_MOVES entries
+	 * @return the number of moves written
+	 */
+	public int generateCaptures(int[] moves) {
+		return generateMoves(getSideToMove(), moves, false, CAPTURES);
+	}
+	
+	/**
+	 * Writes the pseudo legal moves of the player whose turn it is that 
+	 * neither capture nor promote, castling included
+	 * @param moves the buffer the moves are written to, it must hold at least 
+	 *  MAX_MOVES entries
+	 * @return the number of moves written
+	 */
+	public int generateQuiets(int[] moves) {
+		return generateMoves(getSideToMove(), moves, false, QUIETS);
+	}
+	
+	/**
+	 * Checks a move from another position, such as one stored in a 
+	 * transposition table, before it is made
+	 * @param move a packed move, its flags are ignored
+	 * @return the move with the flags the move generator gives it, 
+	 *  PackedMove.NONE when the move is not pseudo legal here
+	 */
+	public int toPseudoLegalMove(int move) {
+		int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+		int piece = mailbox[from], result = PackedMove.NONE;
+		
+		if(move != PackedMove.NONE && piece != EMPTY && colorOf(piece) == getSideToMove()) {
+			int id = matchRule(from, to), promotion = PackedMove.getPromotion(move);
+			boolean promotes = id == PROMOTION_REQUIRED;
+			
+			if(id != 0 && promotes == (promotion != 0) && promotion <= QUEEN) {
+				int flags = mailbox[to] != EMPTY ? PackedMove.CAPTURE : 0;
+				
+				if(id == EN_PASSANT) {
+					flags = PackedMove.CAPTURE | PackedMove.EN_PASSANT;
+				}
+				else if(id == CASTLED) {
+					flags = PackedMove.CASTLE;
+				}
+				else if(abilityOf(piece) == PAWN && Math.abs(to - from) == 16) {
+					flags = PackedMove.DOUBLE_PUSH;
+				}
+				
+				result = PackedMove.of(from, to, promotion, flags);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Plays a move from the move generator and pushes what is needed to take
+	 * it back on the undo stack, the cells are not updated
+	 * @param move a packed move (see PackedMove), the flags are not required 
+	 *  and a pawn reaching the last row without a promotion becomes a Queen
+	 * @throws IllegalStateException when MAX_PLY moves have been made
+	 */
+	public void make(int move) throws IllegalStateException {
+		if(ply == MAX_PLY) {
+			throw new IllegalStateException("the undo stack is full");
+		}
+		
+		int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+		int piece = mailbox[from], color = colorOf(piece), ability = abilityOf(piece);
+		int captureSquare = ability == PAWN && to == enPassantSquare ? (from / 8) * 8 + to % 8 : to;
+		int captured = mailbox[captureSquare];
+		
+		undoMoves[ply] = move;
+		undoCaptured[ply] = captured;
+		undoState[ply] = castlingRights | (enPassantSquare + 1) << 4 | piece << 11 | halfmoveClock << 15;
+		undoKeys[ply] = key;
+		ply++;
+		
+		key ^= enPassantKey() ^ Zobrist.castling(castlingRights) ^ Zobrist.side();
+		
+		removePiece(captureSquare);
+		removePiece(from);
+		
+		if(ability == PAWN && (to / 8 == 0 || to / 8 == 7)) {
+			int promotion = PackedMove.getPromotion(move);
+			
+			piece = pieceOf(color, promotion == 0 ? QUEEN : promotion);
+		}
+		
+		putPiece(piece, to);
+		
+		if(ability == KING && Math.abs(to - from) == 2) {//Castle the rook too
+			int rookFrom = to > from ? from + 3 : from - 4;
+			
+			putPiece(mailbox[rookFrom], (from + to) / 2);
+			removePiece(rookFrom);
+		}
+		
+		castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+		enPassantSquare = ability == PAWN && Math.abs(to - from) == 16 ? (from + to) / 2 : NO_SQUARE;
+		halfmoveClock = ability == PAWN || captured != EMPTY ? 0 : halfmoveClock + 1;
+		playerTurn ^= 1;
+		key ^= enPassantKey() ^ Zobrist.castling(castlingRights);
+	}
+	
+	/**
+	 * Passes the turn to the other player without moving a piece, for a 
+	 * search that wants to know if the position is good even if it gave up 
+	 * a move.  Any en passant square is given up, the move is taken back 
+	 * with unmake like any other
+	 * @throws IllegalStateException when MAX_PLY moves have been made
+	 */
+	public void makeNullMove() throws IllegalStateException {
+		if(ply == MAX_PLY) {
+			throw new IllegalStateException("the undo stack is full");
+		}
+		
+		undoMoves[ply] = PackedMove.NONE;
+		undoCaptured[ply] = EMPTY;
+		undoState[ply] = castlingRights | (enPassantSquare + 1) << 4 | halfmoveClock << 15;
+		undoKeys[ply] = key;
+		ply++;
+		
+		key ^= enPassantKey() ^ Zobrist.side();
+		enPassantSquare = NO_SQUARE;
+		halfmoveClock++;
+		playerTurn ^= 1;
+	}
+	
+	/**
+	 * Takes back the last move played with make or makeNullMove
+	 * @throws IllegalStateException when there is no move to take back
+	 */
+	public void unmake() throws IllegalStateException {
+		if(ply == 0) {
+			throw new IllegalStateException("there is no move to unmake");
+		}
+		
+		--ply;
+		
+		int move = undoMoves[ply], state = undoState[ply], captured = undoCaptured[ply];
+		int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+		int piece = (state >>> 11) & 15;//The piece before any promotion
+		
+		castlingRights = state & 15;
+		enPassantSquare = ((state >>> 4) & 127) - 1;
+		halfmoveClock = state >>> 15;
+		playerTurn ^= 1;
+		
+		if(move != PackedMove.NONE) {//A null move has no piece to put back
+			removePiece(to);
+			putPiece(piece, from);
+			
+			if(captured != EMPTY) {
+				putPiece(captured, abilityOf(piece) == PAWN && to == enPassantSquare ? 
+						(from / 8) * 8 + to % 8 : to);
+			}
+			
+			if(abilityOf(piece) == KING && Math.abs(to - from) == 2) {
+				int rookFrom = to > from ? from + 3 : from - 4;
+				
+				putPiece(mailbox[(from + to) / 2], rookFrom);
+				removePiece((from + to) / 2);
+			}
+		}
+		
+		key = undoKeys[ply];//Last, putPiece and removePiece change the key
+	}
+	
+	@Override
+	public int tryMove(String move) {
+		return tryMove(PackedMove.parse(move));
+	}
+	
+	@Override
+	public int tryMove(int move) {
+		int status = statusOf(PackedMove.withoutFlags(move));
+		
+		if(status == MoveStatus.OK) {
+			int plain = PackedMove.withoutFlags(move), color = getSideToMove();
+			int id = matchRule(PackedMove.getFrom(plain), PackedMove.getTo(plain));
+			
+			make(plain);
+			
+			if(isInCheck(color)) {//Moving into check?
+				unmake();
+				status = MoveStatus.LEAVES_KING_IN_CHECK;
+			}
+			else {
+				commit();
+				updateCells(plain, id);
+			}
+		}
+		
+		return status;
+	}
+	
+	@Override
+	public RuleResult makeMove(String move) throws IllegalMoveException {
+		int packed = PackedMove.parse(move), status = statusOf(packed), id = 0;
+		Piece capturedPiece = null;
+		
+		if(status == MoveStatus.OK) {//Read before the move takes it off its square
+			int from = PackedMove.getFrom(packed), to = PackedMove.getTo(packed);
+			int captureSquare, captured;
+			
+			id = matchRule(from, to);
+			captureSquare = captureSquareOf(from, to, id);
+			captured = mailbox[captureSquare];
+			capturedPiece = cells != null ? cells.get(captureSquare).getPiece() : null;
+			
+			if(captured != EMPTY && capturedPiece == null) {
+				capturedPiece = new Piece(playerOf(colorOf(captured)), ABILITIES[abilityOf(captured)]);
+			}
+			
+			status = tryMove(packed);
+		}
+		
+		if(status != MoveStatus.OK) {
+			throw new IllegalMoveException(MoveStatus.messageOf(status));
+		}
+		
+		return new RuleResult(ruleOf(id), capturedPiece);
+	}
+}
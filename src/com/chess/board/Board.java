@@ -1,20 +1,13 @@
 package com.chess.board;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import com.chess.pieces.Ability;
 import com.chess.pieces.Piece;
 import com.chess.pieces.Player;
 import com.chess.pieces.PlayerColor;
-import com.chess.rules.BishopProcessor;
-import com.chess.rules.KingProcessor;
-import com.chess.rules.KnightProcessor;
-import com.chess.rules.PawnProcessor;
-import com.chess.rules.QueenProcessor;
-import com.chess.rules.RookProcessor;
-import com.chess.rules.Rule;
-import com.chess.rules.RuleProcessor;
+import com.chess.rules.PositionState;
+import com.chess.rules.RuleProcessors;
 import com.chess.rules.RuleResult;
 import static com.chess.rules.RuleConstants.*;
 
@@ -23,65 +16,14 @@ import static com.chess.rules.RuleConstants.*;
  * @author bradley
  *
  */
-public class Board implements BoardActions{
+public class Board implements BoardActions, PositionSource{
+	private static final Ability[] ABILITIES = Ability.values();
+	
 	private Player[] players;
 	int playerTurn;
 	private List<Cell> cells;
-	private HashMap<Ability, RuleProcessor> processors;
-	private HashMap<Character, Integer> alphaMap;
-	
-	private String validateMoveInput(String input) {
-				
-		if(input != null) {
-			if(input.length() == 4) {
-				String validate = input.toLowerCase();
-				
-				for(int i = 0; i < 4; i++) {
-					char digit = validate.charAt(i);
-					
-					if(i==0 || i==2) {
-						if(digit < 'a' || digit > 'h') {
-							input = null;
-							break;
-						}
-					}
-					else {
-						if(digit < '1' || digit > '8') {
-							input = null;
-							break;
-						}
-					}
-				}
-			}
-			else 
-				input = null;
-		}
-		
-		return input;
-	}
-	
-	private HashMap<Character, Integer> buildAlphaMap () {
-		HashMap<Character, Integer> result = new HashMap<>();
-		
-		result.put('a', 1);
-		result.put('A', 1);
-		result.put('b', 2);
-		result.put('B', 2);
-		result.put('c', 3);
-		result.put('C', 3);
-		result.put('d', 4);
-		result.put('D', 4);
-		result.put('e', 5);
-		result.put('E', 5);
-		result.put('f', 6);
-		result.put('F', 6);
-		result.put('g', 7);
-		result.put('G', 7);
-		result.put('h', 8);
-		result.put('H', 8);
-		
-		return result;
-	}
+	private BitBoard position;
+	private boolean syncing;
 	
 	private void assignPiece(Piece thePiece, int xIndex, int yIndex) {
 		getCellByIndex(xIndex, yIndex).setPiece(thePiece);
@@ -130,6 +72,75 @@ public class Board implements BoardActions{
 		}
 	}
 	
+	/**
+	 * Keeps the bit board position in sync with the cells
+	 * @param cell the cell that was changed
+	 * @param current the piece now occupying the cell
+	 */
+	private void pieceChanged(Cell cell, Piece current) {
+		if(!syncing) {
+			Location location = cell.getLocation();
+			
+			position.setPieceAt((location.getYIndex() - 1) * 8 + (location.getXIndex() - 1), current);
+		}
+	}
+	
+	/**
+	 * Moves the pieces on the cells after the move was made on the position
+	 * @param fromCell the cell moved from
+	 * @param toCell the cell moved to
+	 * @param id the id of the matched rule
+	 * @param promotion the Ability ordinal a pawn is promoted to, 0 for a Queen
+	 */
+	private void updateCells(Cell fromCell, Cell toCell, int id, int promotion) {
+		Piece playerPiece = fromCell.getPiece();
+		Location from = fromCell.getLocation(), to = toCell.getLocation();
+		
+		syncing = true;
+		
+		if(id == PROMOTION_REQUIRED) {
+			playerPiece.setAbility(ABILITIES[promotion == 0 ? BitBoard.QUEEN : promotion]);
+		}
+		else if(id == EN_PASSANT) {
+			getCellByIndex(to.getXIndex(), from.getYIndex()).setPiece(null);
+		}
+		else if(id == CASTLED) {
+			Cell rookCell = getCellByIndex(to.getXIndex() > from.getXIndex() ? 8 : 1, to.getYIndex());
+			
+			getCellByIndex((from.getXIndex() + to.getXIndex()) / 2, to.getYIndex())
+				.setPiece(rookCell.getPiece());
+			rookCell.setPiece(null);
+		}
+		
+		toCell.setPiece(playerPiece);
+		fromCell.setPiece(null);
+		
+		syncing = false;
+	}
+	
+	/**
+	 * Matches the move against the rules of the moving piece, the same
+	 * processors the rules package shares with every board
+	 * @param move the packed move
+	 * @return the result of the match, null if the move is not the player's
+	 *  or matches no rule
+	 */
+	private RuleResult resultOf(int move) {
+		Cell fromCell = cells.get(PackedMove.getFrom(move));
+		Piece playerPiece = fromCell.getPiece();
+		RuleResult result = null;
+		
+		if(move != PackedMove.NONE && playerPiece != null && playerPiece.getPlayer() == players[playerTurn]) {
+			PositionState state = PositionState.of(position.getCastlingRights(), position.getEnPassantSquare());
+			Move theMove = new Move(fromCell, cells.get(PackedMove.getTo(move)));
+			
+			result = RuleProcessors.of(playerPiece.getAbility())
+					.GetMoveResult(cells, position.getOccupied(), state, theMove);
+		}
+		
+		return result;
+	}
+	
 	private List<Cell> createBoard(){
 		List<Cell> newCells = new ArrayList<>();
 		int toggle = 1;
@@ -143,72 +154,12 @@ public class Board implements BoardActions{
 			
 			toggle ^= 1;
 			
-			Cell cell = new Cell(color, new Location((i % 8) + 1, i/8 + 1));
-			
-			newCells.add(cell);
+			newCells.add(new Cell(color, new Location((i % 8) + 1, i/8 + 1)));
 		}
 		
 		return newCells;
 	}
 	
-	/**
-	 * Keep very basic because rule processors will be evaluating these moves
-	 * @param fromCell the origin cell to make moves from
-	 * @return a list of moves to evaluate for the piece occupying the cell
-	 */
-	private List<Move> getInCheckMoves(Cell fromCell){
-		List<Move> moves = new ArrayList<Move>();
-		Piece fromPiece = fromCell.getPiece();
-		Ability fromAbility = fromPiece.getAbility();
-		Location fromLocation = fromCell.getLocation();
-		int x1 = fromLocation.getXIndex(), y1 = fromLocation.getYIndex();
-				
-		for(Cell toCell:cells) {
-			if(toCell != fromCell) {
-				Location toLocation = toCell.getLocation();
-				int x2 = toLocation.getXIndex(), y2 = toLocation.getYIndex(),
-						absDeltaX = Math.abs(x2 - x1),
-						absDeltaY = Math.abs(y2 - y1);
-				
-				switch(fromAbility) {
-				case Pawn:
-					if(absDeltaX == 1 || absDeltaY == 1 || absDeltaY == 2) {
-						moves.add(new Move(fromCell, toCell));
-					}
-					break;
-				case Knight:
-					if((absDeltaX == 1 && absDeltaY == 2) || 
-					   (absDeltaX == 2 && absDeltaY == 1)){
-						moves.add(new Move(fromCell, toCell));
-						}
-					break;
-				case Bishop:
-					if(absDeltaX == absDeltaY) {
-						moves.add(new Move(fromCell, toCell));
-					}
-					break;
-				case Rook:
-					if(absDeltaX == 0 || absDeltaY == 0) {
-						moves.add(new Move(fromCell, toCell));
-					}
-					break;
-				case Queen:
-					if(absDeltaX == 0 || absDeltaY == 0 || absDeltaX == absDeltaY) {
-						moves.add(new Move(fromCell, toCell));
-					}
-					break;
-				case King:
-					if(absDeltaX == 1 || absDeltaY == 1) {
-						moves.add(new Move(fromCell, toCell));
-					}
-					break;
-				}
-			}
-		}
-		
-		return moves;
-	}
-	
 	public Board(Player player1, Player player2) throws IllegalArgumentException {
 		if(player1 == null) {
 			throw new IllegalArgumentException("player1 is null");
@@ -223,18 +174,16 @@ public class Board implements BoardActions{
 		
 		cells = createBoard();
 		
-		alphaMap = buildAlphaMap();//Used for conversion on input
-		
-		processors = new HashMap<>();
-		processors.put(Ability.Pawn, new PawnProcessor());
-		processors.put(Ability.Knight, new KnightProcessor());
-		processors.put(Ability.Bishop, new BishopProcessor());
-		processors.put(Ability.Rook, new RookProcessor());
-		processors.put(Ability.Queen, new QueenProcessor());
-		processors.put(Ability.King, new KingProcessor());
-		
 		initPieces(0);//player 1's pieces
 		initPieces(1);//player 2's pieces
+		
+		position = new BitBoard(player1, player2);//Starts from the same pieces
+		
+		CellObserver observer = (cell, previous, current) -> pieceChanged(cell, current);
+		
+		for(Cell cell:cells) {
+			cell.setObserver(observer);
+		}
 	}
 	
 	@Override
@@ -248,37 +197,12 @@ public class Board implements BoardActions{
 			throw new IllegalArgumentException("checkPlayer is null");
 		}
 		
-		boolean isCheck = false;
-		List<Cell> enemyCells = new ArrayList<>();
-		Cell kingCell = null;
-		
-		for (Cell cell:cells) {
-			Piece piece = cell.getPiece();
-			
-			if(piece != null) {
-				if(piece.getPlayer() != checkPlayer) {
-					enemyCells.add(cell);
-				}
-				else {
-					if(piece.getAbility() == Ability.King) {
-						kingCell = cell;
-					}
-				}
-			}
-		}
-		
-		for (Cell cell:enemyCells) {
-			Move theMove = new Move(cell, kingCell);
-			RuleResult result = processors.get(cell.getPiece().getAbility())
-					.GetMoveResult(cells , theMove);
-			
-			if(result != null && result.getCapturedPiece().getAbility() == Ability.King) {
-				isCheck=true;
-				break;
-			}
-		}
-		
-		return isCheck;
+		return position.isInCheck(checkPlayer.getColor().ordinal());
+	}
+
+	@Override
+	public boolean isSquareAttacked(int square, int byColor) throws IllegalArgumentException {
+		return position.isSquareAttacked(square, byColor);
 	}
 
 	@Override
@@ -287,163 +211,106 @@ public class Board implements BoardActions{
 			throw new IllegalArgumentException("checkPlayer is null");
 		}
 		
-		boolean isCheck = kingIsInCheck(checkPlayer);//Is King in check?
-		
-		if(isCheck) {//Can any piece stop check?
-			for(Cell friendCell:cells) {
-				Piece friendPiece = friendCell.getPiece();
-								
-				if(friendPiece != null && friendPiece.getPlayer() == checkPlayer) {
-					Ability friendAbility = friendPiece.getAbility();
-					List<Move> moves = getInCheckMoves(friendCell);
-					
-					for(Move theMove:moves) {
-						RuleResult result = processors.get(friendAbility)
-								.GetMoveResult(cells, theMove);
-						
-						if(result != null) {
-							Cell toCell = theMove.getToCell();
-							Piece toPiece = toCell.getPiece();
-							
-							friendCell.setPiece(null);//Make the move
-							toCell.setPiece(friendPiece);
-							
-							isCheck = kingIsInCheck(checkPlayer);
-							
-							toCell.setPiece(toPiece);//Restore previous state
-							friendCell.setPiece(friendPiece);
-						}
-						
-						if(!isCheck) {
-							break;
-						}
-					}
-					
-					if(!isCheck) {
-						break;
-					}
-				}
-			}
+		return position.isCheckMate(checkPlayer);
+	}
+
+	@Override
+	public boolean isStaleMate(Player checkPlayer) throws IllegalArgumentException {
+		if(checkPlayer == null) {
+			throw new IllegalArgumentException("checkPlayer is null");
 		}
 		
-		return isCheck;//Is Check no matter what action was taken
+		return position.isStaleMate(checkPlayer);
 	}
 
 	@Override
 	public RuleResult makeMove(String move) throws IllegalMoveException {
-		if(validateMoveInput(move) == null) {
-			throw new IllegalMoveException("move was not formatted correctly");
-		}
-		
-		boolean isCheck = false;
-		RuleResult result = null;
-		
-		int x1 = alphaMap.get(move.charAt(0)), y1 = move.charAt(1) - '0',
-			x2 = alphaMap.get(move.charAt(2)), y2 = move.charAt(3) - '0';
-		
-		Cell fromCell = getCellByIndex(x1, y1), toCell = getCellByIndex(x2, y2);
+		int packed = PackedMove.parse(move);
+		RuleResult result = resultOf(packed);//Read before the move takes the captured piece off its cell
+		int status = tryMove(packed);
 		
-		Piece playerPiece = fromCell.getPiece();
-		
-		if(playerPiece == null || playerPiece.getPlayer() != players[playerTurn]) {
-			throw new IllegalMoveException("fromCell did not contain the player's piece");
+		if(status != MoveStatus.OK) {
+			throw new IllegalMoveException(MoveStatus.messageOf(status));
 		}
 		
-		Move theMove = new Move(fromCell, toCell);
-		
-		result = processors.get(playerPiece.getAbility()).GetMoveResult(cells, theMove);
+		return result;
+	}
+	
+	@Override
+	public int tryMove(String move) {
+		return tryMove(PackedMove.parse(move));
+	}
+	
+	@Override
+	public int tryMove(int move) {
+		int plain = PackedMove.withoutFlags(move), status = MoveStatus.OK;
+		int from = PackedMove.getFrom(plain), to = PackedMove.getTo(plain);
+		int promotion = PackedMove.getPromotion(plain);
+		Piece playerPiece = cells.get(from).getPiece();
 		
-		if(result != null) {
-			Rule matched = result.getMatchedRule();
-			int id = matched.getId();
-			Piece enemyPiece = null;
-			Move lastMove = null;
-			Cell intermediate = null, rookCell = null;
-			
-			if(id == VALID_MOVE) {
-				enemyPiece = toCell.getPiece();
-				toCell.setPiece(playerPiece);	
-				fromCell.setPiece(null);
-			}
-			else if(id == PROMOTION_REQUIRED) {
-				enemyPiece = toCell.getPiece();
-				toCell.setPiece(playerPiece);	
-				fromCell.setPiece(null);
-				playerPiece.setAbility(Ability.Queen);
-			}
-			else if(id == EN_PASSANT) {
-				toCell.setPiece(playerPiece);	
-				fromCell.setPiece(null);
-				lastMove = result.getCapturedPiece().getHistory().get(0);
-				lastMove.getToCell().setPiece(null);
-			}
-			else if(id == CASTLED) {
-				isCheck = kingIsInCheck(players[playerTurn]);//Not allowed, if already in check
-				
-				if(!isCheck) {
-					if(x1 < x2) {
-						intermediate = getCellByIndex(x2 - 1, y2);
-						rookCell = getCellByIndex(1, y2);
-					}
-					else {
-						intermediate = getCellByIndex(x2 + 1, y2);
-						rookCell = getCellByIndex(8, y2);
-					}
-					
-					fromCell.setPiece(null);
-					intermediate.setPiece(playerPiece);
-					
-					isCheck = kingIsInCheck(players[playerTurn]);//Not allowed to move through check
-					
-					toCell.setPiece(playerPiece);
-					intermediate.setPiece(rookCell.getPiece());
-					rookCell.setPiece(null);
-				}
-			}
+		if(plain == PackedMove.NONE) {
+			status = MoveStatus.MALFORMED;
+		}
+		else if(playerPiece == null || playerPiece.getPlayer() != players[playerTurn]) {
+			status = MoveStatus.NOT_YOUR_PIECE;
+		}
+		else {
+			RuleResult result = resultOf(plain);
+			int id = result == null ? 0 : result.getMatchedRule().getId();
+			int color = position.getSideToMove();
 			
-			if(!isCheck) {
-				isCheck = kingIsInCheck(players[playerTurn]);//Moving into check?
+			if(result == null || promotion != 0 && (id != PROMOTION_REQUIRED || promotion > BitBoard.QUEEN)) {
+				status = MoveStatus.ILLEGAL_PATTERN;
 			}
-			
-			if(isCheck) {
-				fromCell.setPiece(playerPiece);
-				toCell.setPiece(enemyPiece);
-				
-				if(id == EN_PASSANT) {
-					lastMove.getToCell().setPiece(result.getCapturedPiece());
-				}
-				else if(id == CASTLED) {
-					if(intermediate != null) {
-						rookCell.setPiece(intermediate.getPiece());
-						intermediate.setPiece(null);
-					}
-				}
-				else if(id == PROMOTION_REQUIRED) {
-					playerPiece.setAbility(Ability.Pawn);
-				}
-				
-				result = null;
+			else if(id == CASTLED && (position.isSquareAttacked(from, color ^ 1) || 
+					position.isSquareAttacked((from + to) / 2, color ^ 1))) {
+				status = MoveStatus.CASTLES_THROUGH_CHECK;//Out of check as well
 			}
 			else {
-				List<Move> history = playerPiece.getHistory();
+				position.make(plain);
 				
-				if(history.size() == 0) {
-					processors.get(playerPiece.getAbility()).setPreviousMove(theMove);//only set for first move
+				if(position.isInCheck(color)) {//Moving into check?
+					position.unmake();
+					status = MoveStatus.LEAVES_KING_IN_CHECK;
 				}
 				else {
-					processors.get(playerPiece.getAbility()).setPreviousMove(null);
+					Cell fromCell = cells.get(from), toCell = cells.get(to);
+					
+					position.commit();
+					playerPiece.getHistory().add(new Move(fromCell, toCell));//Add to piece's history
+					
+					updateCells(fromCell, toCell, id, promotion);
+					playerTurn ^= 1;//Toggle between 0 and 1
 				}
-				
-				history.add(theMove);//Add to piece's history
 			}
 		}
 		
-		if(result == null) {
-			throw new IllegalMoveException("an illegal move was attempted");
-		}
-		
-		playerTurn ^= 1;//Toggle between 0 and 1
-		
-		return result;
+		return status;
+	}
+	
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return position.generateLegalMoves(moves);
+	}
+	
+	@Override
+	public int generatePseudoLegalMoves(int[] moves) {
+		return position.generatePseudoLegalMoves(moves);
+	}
+	
+	@Override
+	public long getPositionKey() {
+		return position.getPositionKey();
+	}
+	
+	/**
+	 * Takes a snapshot of the bit board position the cells are kept in sync
+	 * with.  The cells and pieces are not copied, later moves on the board
+	 * do not change the snapshot
+	 * @return a bit board holding the position as it is now
+	 */
+	@Override
+	public BitBoard copyPosition() {
+		return position.copyPosition();
 	}
 }
@@ -24,6 +24,15 @@ public interface BoardActions {
 	 */
 	boolean kingIsInCheck(Player checkPlayer) throws IllegalArgumentException;
 	
+	/**
+	 * 
+	 * @param square the square being attacked, (yIndex - 1) * 8 + (xIndex - 1)
+	 * @param byColor the ordinal of the attacking PlayerColor
+	 * @return if any piece of byColor attacks the square
+	 * @throws IllegalArgumentException
+	 */
+	boolean isSquareAttacked(int square, int byColor) throws IllegalArgumentException;
+	
 	/**
 	 * 
 	 * @param checkPlayer the player to check against
@@ -32,6 +41,14 @@ public interface BoardActions {
 	 */
 	boolean isCheckMate(Player checkPlayer) throws IllegalArgumentException;
 	
+	/**
+	 * 
+	 * @param checkPlayer the player to check against
+	 * @return if the player is not in check but has no legal move
+	 * @throws IllegalArgumentException
+	 */
+	boolean isStaleMate(Player checkPlayer) throws IllegalArgumentException;
+	
 	/**
 	 * Attempts to make a move on the board
 	 * @param move the move being attempted
@@ -39,4 +56,48 @@ public interface BoardActions {
 	 * @throws IllegalMoveException
 	 */
 	RuleResult makeMove(String move) throws IllegalMoveException;
+	
+	/**
+	 * Attempts to make a move on the board without throwing when it is turned 
+	 * down, for checking many moves quickly
+	 * @param move the move being attempted
+	 * @return MoveStatus.OK when the move was made, otherwise the reason it 
+	 *  was not (see MoveStatus)
+	 */
+	int tryMove(String move);
+	
+	/**
+	 * Attempts to make a move already packed, such as one read by 
+	 * PackedMove.parse, the flags of the move are ignored
+	 * @param move the packed move being attempted
+	 * @return MoveStatus.OK when the move was made, otherwise the reason it 
+	 *  was not (see MoveStatus)
+	 */
+	int tryMove(int move);
+	
+	/**
+	 * Writes every legal move of the player whose turn it is, the moves are 
+	 * packed ints (see PackedMove)
+	 * @param moves the buffer the moves are written to, it must hold at least 
+	 *  BitBoard.MAX_MOVES entries
+	 * @return the number of moves written
+	 */
+	int generateLegalMoves(int[] moves);
+	
+	/**
+	 * Writes every move of the player whose turn it is without checking if the 
+	 * move leaves their King in check
+	 * @param moves the buffer the moves are written to, it must hold at least 
+	 *  BitBoard.MAX_MOVES entries
+	 * @return the number of moves written
+	 */
+	int generatePseudoLegalMoves(int[] moves);
+	
+	/**
+	 * The key is kept up to date as moves are made, positions with the same 
+	 * pieces, player to move, castling rights and en passant capture have
+	 * the same key
+	 * @return the Zobrist key of the position
+	 */
+	long getPositionKey();
 }
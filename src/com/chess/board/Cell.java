@@ -11,6 +11,7 @@ public class Cell {
 	private CellColor color;
 	private Location location;
 	private Piece piece;
+	private CellObserver observer;
 	
 	/**
 	 * 
@@ -60,6 +61,20 @@ public class Cell {
 	 * @param thePiece make piece occupy cell
 	 */
 	public void setPiece(Piece thePiece) {
+		Piece previous = piece;
+		
 		piece = thePiece;
+		
+		if(observer != null) {
+			observer.pieceChanged(this, previous, thePiece);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param theObserver notified when the occupying piece changes (could be null)
+	 */
+	void setObserver(CellObserver theObserver) {
+		observer = theObserver;
 	}
 }
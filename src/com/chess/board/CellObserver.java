@@ -0,0 +1,20 @@
+package com.chess.board;
+
+import com.chess.pieces.Piece;
+
+/**
+ * CellObserver is notified whenever the piece occupying a Cell changes, 
+ * so that boards can keep their own representation in sync with the cells
+ * they hand out
+ * @author bradley
+ *
+ */
+interface CellObserver {
+	/**
+	 * 
+	 * @param cell the cell that was changed
+	 * @param previous the piece that occupied the cell (could be null)
+	 * @param current the piece that now occupies the cell (could be null)
+	 */
+	void pieceChanged(Cell cell, Piece previous, Piece current);
+}
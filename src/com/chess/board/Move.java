@@ -1,7 +1,11 @@
 package com.chess.board;
 
+import java.util.List;
+
 /**
- * Move encapsulates the properties of a move from cell to cell
+ * Move encapsulates the properties of a move from cell to cell.  The rules 
+ * and the console work with Moves, move generation and search use the int
+ * encoding of PackedMove
  * @author bradley
  *
  */
@@ -28,6 +32,21 @@ public class Move {
 		toCell = destination;
 	}
 	
+	/**
+	 * 
+	 * @param cells the ordered cells of the board
+	 * @param move the packed move (see PackedMove)
+	 * @throws IllegalArgumentException
+	 */
+	public Move(List<Cell> cells, int move) throws IllegalArgumentException {
+		if(cells == null) {
+			throw new IllegalArgumentException("cells is null");
+		}
+		
+		fromCell = cells.get(PackedMove.getFrom(move));
+		toCell = cells.get(PackedMove.getTo(move));
+	}
+	
 	/**
 	 * 
 	 * @return the from cell
@@ -43,4 +62,15 @@ public class Move {
 	public Cell getToCell() {
 		return toCell;
 	}
+	
+	/**
+	 * 
+	 * @return the move packed in an int, without a promotion or flags
+	 */
+	public int toPackedMove() {
+		Location from = fromCell.getLocation(), to = toCell.getLocation();
+		
+		return PackedMove.of((from.getYIndex() - 1) * 8 + (from.getXIndex() - 1),
+				(to.getYIndex() - 1) * 8 + (to.getXIndex() - 1));
+	}
 }
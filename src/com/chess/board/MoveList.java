@@ -0,0 +1,123 @@
+package com.chess.board;
+
+/**
+ * MoveList holds packed moves (see PackedMove) in an int array that is 
+ * allocated once.  A search keeps one list per ply and fills it again for
+ * every position it visits
+ * @author bradley
+ *
+ */
+public class MoveList {
+	private int[] moves;
+	private int size;
+	
+	public MoveList() {
+		moves = new int[BitBoard.MAX_MOVES];
+		size = 0;
+	}
+	
+	/**
+	 * Replaces the moves with the legal moves of the board
+	 * @param board the board to generate moves for
+	 * @return the number of moves
+	 */
+	public int generateLegalMoves(BoardActions board) {
+		size = board.generateLegalMoves(moves);
+		return size;
+	}
+	
+	/**
+	 * Replaces the moves with the pseudo legal moves of the board
+	 * @param board the board to generate moves for
+	 * @return the number of moves
+	 */
+	public int generatePseudoLegalMoves(BoardActions board) {
+		size = board.generatePseudoLegalMoves(moves);
+		return size;
+	}
+	
+	/**
+	 * Empties the list without releasing its array
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move to add
+	 * @throws IllegalStateException
+	 */
+	public void add(int move) throws IllegalStateException {
+		if(size == moves.length) {
+			throw new IllegalStateException("the move list is full");
+		}
+		
+		moves[size++] = move;
+	}
+	
+	/**
+	 * 
+	 * @param index the index of the move
+	 * @return the packed move
+	 * @throws IndexOutOfBoundsException
+	 */
+	public int get(int index) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index is out of range");
+		}
+		
+		return moves[index];
+	}
+	
+	/**
+	 * 
+	 * @param index the index of the move
+	 * @param move the packed move to store
+	 * @throws IndexOutOfBoundsException
+	 */
+	public void set(int index, int move) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index is out of range");
+		}
+		
+		moves[index] = move;
+	}
+	
+	/**
+	 * Swaps two moves, used when picking the next move to search
+	 * @param first the index of the first move
+	 * @param second the index of the second move
+	 */
+	public void swap(int first, int second) {
+		int move = moves[first];
+		
+		moves[first] = moves[second];
+		moves[second] = move;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move to find, flags are ignored
+	 * @return the index of the move, -1 when it is not in the list
+	 */
+	public int indexOf(int move) {
+		move = PackedMove.withoutFlags(move);
+		
+		for(int i = 0; i < size; i++) {
+			if(PackedMove.withoutFlags(moves[i]) == move) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 
+	 * @return the number of moves in the list
+	 */
+	public int size() {
+		return size;
+	}
+}
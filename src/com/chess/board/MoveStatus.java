@@ -0,0 +1,45 @@
+package com.chess.board;
+
+/**
+ * MoveStatus holds the codes tryMove returns.  Only OK means the move was
+ * made, every other code tells why it was turned down without the cost of
+ * throwing an IllegalMoveException
+ * @author bradley
+ *
+ */
+public final class MoveStatus {
+	public static final int OK = 0;
+	public static final int MALFORMED = 1;
+	public static final int NOT_YOUR_PIECE = 2;
+	public static final int ILLEGAL_PATTERN = 3;
+	public static final int LEAVES_KING_IN_CHECK = 4;
+	public static final int CASTLES_THROUGH_CHECK = 5;//Out of check as well
+	
+	private MoveStatus() {
+	}
+	
+	/**
+	 * 
+	 * @param status a code returned by tryMove
+	 * @return the message makeMove throws for the code
+	 */
+	public static String messageOf(int status) {
+		String message;
+		
+		switch(status) {
+		case OK:
+			message = "the move was made";
+			break;
+		case MALFORMED:
+			message = "move was not formatted correctly";
+			break;
+		case NOT_YOUR_PIECE:
+			message = "fromCell did not contain the player's piece";
+			break;
+		default:
+			message = "an illegal move was attempted";
+		}
+		
+		return message;
+	}
+}
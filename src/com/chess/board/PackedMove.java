@@ -0,0 +1,227 @@
+package com.chess.board;
+
+/**
+ * PackedMove encodes a move in a single int, so move lists can be plain int
+ * arrays.  Bits 0-5 hold the square moved from, bits 6-11 the square moved
+ * to and bits 12-14 the Ability ordinal a pawn is promoted to (0 when the
+ * move is not a promotion).  The bits above hold flags the move generator
+ * sets, two moves are the same move when they are equal without their flags
+ * @author bradley
+ *
+ */
+public final class PackedMove {
+	public static final int NONE = 0;
+	
+	public static final int CAPTURE = 1 << 15;
+	public static final int EN_PASSANT = 1 << 16;
+	public static final int CASTLE = 1 << 17;
+	public static final int DOUBLE_PUSH = 1 << 18;
+	
+	private static final int MOVE_MASK = CAPTURE - 1;
+	
+	private static final String PROMOTIONS = " nbrq";
+	
+	private PackedMove() {
+	}
+	
+	/**
+	 * 
+	 * @param from the square moved from
+	 * @param to the square moved to
+	 * @return the packed move
+	 */
+	public static int of(int from, int to) {
+		return from | (to << 6);
+	}
+	
+	/**
+	 * 
+	 * @param from the square moved from
+	 * @param to the square moved to
+	 * @param promotion the Ability ordinal the pawn is promoted to
+	 * @return the packed move
+	 */
+	public static int of(int from, int to, int promotion) {
+		return from | (to << 6) | (promotion << 12);
+	}
+	
+	/**
+	 * 
+	 * @param from the square moved from
+	 * @param to the square moved to
+	 * @param promotion the Ability ordinal the pawn is promoted to, 0 if none
+	 * @param flags any of CAPTURE, EN_PASSANT, CASTLE and DOUBLE_PUSH
+	 * @return the packed move
+	 */
+	public static int of(int from, int to, int promotion, int flags) {
+		return from | (to << 6) | (promotion << 12) | flags;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the square moved from
+	 */
+	public static int getFrom(int move) {
+		return move & 0x3F;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the square moved to
+	 */
+	public static int getTo(int move) {
+		return (move >>> 6) & 0x3F;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the Ability ordinal the pawn is promoted to, 0 if none
+	 */
+	public static int getPromotion(int move) {
+		return (move >>> 12) & 0x7;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the flags of the move
+	 */
+	public static int getFlags(int move) {
+		return move & ~MOVE_MASK;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the squares and promotion of the move without its flags
+	 */
+	public static int withoutFlags(int move) {
+		return move & MOVE_MASK;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return if the move takes a piece, en passant included
+	 */
+	public static boolean isCapture(int move) {
+		return (move & CAPTURE) != 0;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return if the move takes a pawn en passant
+	 */
+	public static boolean isEnPassant(int move) {
+		return (move & EN_PASSANT) != 0;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return if the move is a King castling
+	 */
+	public static boolean isCastle(int move) {
+		return (move & CASTLE) != 0;
+	}
+	
+	/**
+	 * 
+	 * @return the square for a file letter and row digit, -1 when they are
+	 *  not on the board
+	 */
+	private static int squareOf(int file, int row) {
+		int x = (file | 0x20) - 'a';//Lower case letters differ by one bit
+		int y = row - '1';
+		
+		return (x < 0 || x > 7 || y < 0 || y > 7) ? -1 : y * 8 + x;
+	}
+	
+	/**
+	 * Packs the characters of a move, the letter is -1 when there is no
+	 * promotion
+	 */
+	private static int pack(int fromFile, int fromRow, int toFile, int toRow, int letter) {
+		int from = squareOf(fromFile, fromRow), to = squareOf(toFile, toRow);
+		int promotion = letter < 0 ? 0 : PROMOTIONS.indexOf(letter | 0x20);
+		
+		return (from < 0 || to < 0 || (letter >= 0 && promotion < 1)) ? NONE : of(from, to, promotion);
+	}
+	
+	/**
+	 * Reads a move written the way toString writes it, such as "e2e4" or
+	 * "e7e8n".  Letters may be either case and nothing is allocated
+	 * @param text the text holding the move
+	 * @param start the index of the first character of the move
+	 * @param end the index after the last character of the move
+	 * @return the packed move without flags or NONE when the characters are
+	 *  not a move
+	 * @throws IndexOutOfBoundsException
+	 */
+	public static int parse(CharSequence text, int start, int end) throws IndexOutOfBoundsException {
+		int length = end - start, move = NONE;
+		
+		if(length == 4 || length == 5) {
+			move = pack(text.charAt(start), text.charAt(start + 1),
+					text.charAt(start + 2), text.charAt(start + 3),
+					length == 5 ? text.charAt(start + 4) : -1);
+		}
+		
+		return move;
+	}
+	
+	/**
+	 * 
+	 * @param text the move, such as "e2e4" or "e7e8n"
+	 * @return the packed move without flags or NONE when text is null or not
+	 *  a move
+	 */
+	public static int parse(CharSequence text) {
+		return text == null ? NONE : parse(text, 0, text.length());
+	}
+	
+	/**
+	 * Reads a move from ASCII bytes, such as a line read from a file or a
+	 * socket, without decoding them into a String first
+	 * @param bytes the bytes holding the move
+	 * @param offset the index of the first byte of the move
+	 * @param length the number of bytes in the move
+	 * @return the packed move without flags or NONE when the bytes are not a
+	 *  move
+	 * @throws IndexOutOfBoundsException
+	 */
+	public static int parse(byte[] bytes, int offset, int length) throws IndexOutOfBoundsException {
+		int move = NONE;
+		
+		if(length == 4 || length == 5) {
+			move = pack(bytes[offset] & 0xFF, bytes[offset + 1] & 0xFF,
+					bytes[offset + 2] & 0xFF, bytes[offset + 3] & 0xFF,
+					length == 5 ? bytes[offset + 4] & 0xFF : -1);
+		}
+		
+		return move;
+	}
+	
+	/**
+	 * 
+	 * @param move the packed move
+	 * @return the move in the same form makeMove accepts, such as "e2e4"
+	 */
+	public static String toString(int move) {
+		int from = getFrom(move), to = getTo(move), promotion = getPromotion(move);
+		StringBuilder builder = new StringBuilder(5);
+		
+		builder.append((char)('a' + from % 8)).append((char)('1' + from / 8));
+		builder.append((char)('a' + to % 8)).append((char)('1' + to / 8));
+		
+		if(promotion != 0) {
+			builder.append(PROMOTIONS.charAt(promotion));
+		}
+		
+		return builder.toString();
+	}
+}
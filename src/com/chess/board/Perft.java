@@ -0,0 +1,191 @@
+package com.chess.board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft counts the leaf nodes of the legal move tree of a position.  The
+ * counts are compared against known values to verify move generation and
+ * the time it takes gives the nodes per second of make, unmake and 
+ * generation together
+ * @author bradley
+ *
+ */
+public final class Perft {
+	
+	/**
+	 * Counts the leaves under one root move on a copy of the position, so
+	 * every root move can run on its own thread
+	 */
+	private static class RootTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		
+		private BitBoard position;
+		private int move;
+		private int depth;
+		
+		RootTask(BitBoard position, int move, int depth) {
+			this.position = position;
+			this.move = move;
+			this.depth = depth;
+		}
+		
+		@Override
+		protected Long compute() {
+			position.make(move);
+			
+			return count(position, depth - 1, new int[depth][BitBoard.MAX_MOVES]);
+		}
+	}
+	
+	private Perft() {
+	}
+	
+	/**
+	 * 
+	 * @param position the position to count from, it is left as it was found
+	 * @param depth the number of plies left
+	 * @param buffers a move buffer for each ply, so nothing is allocated
+	 * @return the number of leaf nodes
+	 */
+	private static long count(BitBoard position, int depth, int[][] buffers) {
+		if(depth == 0) {
+			return 1;
+		}
+		
+		int[] moves = buffers[depth - 1];
+		int count = position.generateLegalMoves(moves);
+		long nodes = 0;
+		
+		if(depth == 1) {//Bulk count the leaves
+			return count;
+		}
+		
+		for(int i = 0; i < count; i++) {
+			position.make(moves[i]);
+			nodes += count(position, depth - 1, buffers);
+			position.unmake();
+		}
+		
+		return nodes;
+	}
+	
+	private static void checkDepth(BoardActions board, int depth, int minimum) 
+			throws IllegalArgumentException {
+		if(board == null) {
+			throw new IllegalArgumentException("board is null");
+		}
+		
+		if(depth < minimum) {
+			throw new IllegalArgumentException("depth is less than " + minimum);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param board the board to count from, a BitBoard or a Board, it is not changed
+	 * @param depth the number of plies to search
+	 * @return the number of leaf nodes of the legal move tree
+	 * @throws IllegalArgumentException
+	 */
+	public static long perft(BoardActions board, int depth) throws IllegalArgumentException {
+		checkDepth(board, depth, 0);
+		
+		return count(BitBoard.copyOf(board), depth, new int[Math.max(depth, 1)][BitBoard.MAX_MOVES]);
+	}
+	
+	/**
+	 * 
+	 * @param board the board to count from, a BitBoard or a Board, it is not changed
+	 * @param depth the number of plies to search, at least 1
+	 * @return the leaf node count under each root move, in the order the
+	 *  moves were generated
+	 * @throws IllegalArgumentException
+	 */
+	public static Map<String, Long> divide(BoardActions board, int depth) throws IllegalArgumentException {
+		checkDepth(board, depth, 1);
+		
+		BitBoard position = BitBoard.copyOf(board);
+		int[][] buffers = new int[depth][BitBoard.MAX_MOVES];
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = position.generateLegalMoves(moves);
+		Map<String, Long> result = new LinkedHashMap<>();
+		
+		for(int i = 0; i < count; i++) {
+			position.make(moves[i]);
+			result.put(PackedMove.toString(moves[i]), count(position, depth - 1, buffers));
+			position.unmake();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Runs each root move as a fork join task on the given pool
+	 * @param board the board to count from, a BitBoard or a Board, it is not changed
+	 * @param depth the number of plies to search, at least 1
+	 * @param pool the pool that runs the root moves
+	 * @return the leaf node count under each root move, in the order the
+	 *  moves were generated
+	 * @throws IllegalArgumentException
+	 */
+	public static Map<String, Long> parallelDivide(BoardActions board, int depth, ForkJoinPool pool) 
+			throws IllegalArgumentException {
+		checkDepth(board, depth, 1);
+		
+		if(pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		
+		BitBoard position = BitBoard.copyOf(board);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = position.generateLegalMoves(moves);
+		List<RootTask> tasks = new ArrayList<>(count);
+		Map<String, Long> result = new LinkedHashMap<>();
+		
+		for(int i = 0; i < count; i++) {
+			tasks.add(new RootTask(position.copyPosition(), moves[i], depth));
+		}
+		
+		pool.invoke(new RecursiveTask<Void>() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected Void compute() {
+				invokeAll(tasks);
+				return null;
+			}
+		});
+		
+		for(int i = 0; i < count; i++) {
+			result.put(PackedMove.toString(moves[i]), tasks.get(i).join());
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Splits the count at the root moves and runs them on every core
+	 * @param board the board to count from, a BitBoard or a Board, it is not changed
+	 * @param depth the number of plies to search
+	 * @return the number of leaf nodes of the legal move tree
+	 * @throws IllegalArgumentException
+	 */
+	public static long parallelPerft(BoardActions board, int depth) throws IllegalArgumentException {
+		checkDepth(board, depth, 0);
+		
+		long nodes = depth == 0 ? 1 : 0;
+		
+		if(depth > 0) {
+			for(long leaves:parallelDivide(board, depth, ForkJoinPool.commonPool()).values()) {
+				nodes += leaves;
+			}
+		}
+		
+		return nodes;
+	}
+}
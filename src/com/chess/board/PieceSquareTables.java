@@ -0,0 +1,178 @@
+package com.chess.board;
+
+/**
+ * PieceSquareTables holds what each piece is worth on each square, its
+ * material plus a bonus or penalty for where it stands.  There is one value
+ * for the middlegame and one for the endgame, the evaluation blends them by
+ * the phase of the game. <br>
+ * Values are from the Upper player's point of view, Lower pieces count
+ * negative.  The tables are written with row 8 first, as Upper sees the
+ * board
+ * @author bradley
+ *
+ */
+public final class PieceSquareTables {
+	/**
+	 * The phase with every piece on the board, it drops towards 0 as pieces
+	 * are taken
+	 */
+	public static final int MAX_PHASE = 24;
+	
+	private static final int[] MATERIAL = { 100, 320, 330, 500, 900, 0 };//The King is never taken
+	private static final int[] PHASE = { 0, 1, 1, 2, 4, 0 };
+	
+	private static final int[] PAWN_MIDDLEGAME = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 10,  10,  20,  30,  30,  20,  10,  10,
+		  5,   5,  10,  25,  25,  10,   5,   5,
+		  0,   0,   0,  20,  20,   0,   0,   0,
+		  5,  -5, -10,   0,   0, -10,  -5,   5,
+		  5,  10,  10, -20, -20,  10,  10,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	
+	private static final int[] PAWN_ENDGAME = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 80,  80,  80,  80,  80,  80,  80,  80,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 30,  30,  30,  30,  30,  30,  30,  30,
+		 20,  20,  20,  20,  20,  20,  20,  20,
+		 10,  10,  10,  10,  10,  10,  10,  10,
+		 10,  10,  10,  10,  10,  10,  10,  10,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	
+	private static final int[] KNIGHT = {
+		-50, -40, -30, -30, -30, -30, -40, -50,
+		-40, -20,   0,   0,   0,   0, -20, -40,
+		-30,   0,  10,  15,  15,  10,   0, -30,
+		-30,   5,  15,  20,  20,  15,   5, -30,
+		-30,   0,  15,  20,  20,  15,   0, -30,
+		-30,   5,  10,  15,  15,  10,   5, -30,
+		-40, -20,   0,   5,   5,   0, -20, -40,
+		-50, -40, -30, -30, -30, -30, -40, -50
+	};
+	
+	private static final int[] BISHOP = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,  10,  10,   5,   0, -10,
+		-10,   5,   5,  10,  10,   5,   5, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,  10,  10,  10,  10,  10,  10, -10,
+		-10,   5,   0,   0,   0,   0,   5, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	
+	private static final int[] ROOK = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  5,  10,  10,  10,  10,  10,  10,   5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		  0,   0,   0,   5,   5,   0,   0,   0
+	};
+	
+	private static final int[] QUEEN = {
+		-20, -10, -10,  -5,  -5, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		 -5,   0,   5,   5,   5,   5,   0,  -5,
+		  0,   0,   5,   5,   5,   5,   0,  -5,
+		-10,   5,   5,   5,   5,   5,   0, -10,
+		-10,   0,   5,   0,   0,   0,   0, -10,
+		-20, -10, -10,  -5,  -5, -10, -10, -20
+	};
+	
+	private static final int[] KING_MIDDLEGAME = {
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-20, -30, -30, -40, -40, -30, -30, -20,
+		-10, -20, -20, -20, -20, -20, -20, -10,
+		 20,  20,   0,   0,   0,   0,  20,  20,
+		 20,  30,  10,   0,   0,  10,  30,  20
+	};
+	
+	private static final int[] KING_ENDGAME = {
+		-50, -40, -30, -20, -20, -30, -40, -50,
+		-30, -20, -10,   0,   0, -10, -20, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -30,   0,   0,   0,   0, -30, -30,
+		-50, -30, -30, -30, -30, -30, -30, -50
+	};
+	
+	private static final int[][] MIDDLEGAME = createScores(new int[][] {
+		PAWN_MIDDLEGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLEGAME });
+	private static final int[][] ENDGAME = createScores(new int[][] {
+		PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME });
+	
+	private PieceSquareTables() {
+	}
+	
+	/**
+	 * Lower's tables are Upper's with the rows turned around
+	 * @param tables indexed by Ability ordinal, row 8 first
+	 * @return the signed scores indexed by piece code and square
+	 */
+	private static int[][] createScores(int[][] tables) {
+		int[][] scores = new int[12][64];
+		
+		for(int ability = 0; ability < 6; ability++) {
+			for(int square = 0; square < 64; square++) {
+				int upper = MATERIAL[ability] + tables[ability][(7 - square / 8) * 8 + square % 8];
+				int lower = MATERIAL[ability] + tables[ability][square];
+				
+				scores[BitBoard.pieceOf(BitBoard.UPPER, ability)][square] = upper;
+				scores[BitBoard.pieceOf(BitBoard.LOWER, ability)][square] = -lower;
+			}
+		}
+		
+		return scores;
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code (see BitBoard.pieceOf)
+	 * @param square the square the piece is on
+	 * @return the middlegame score of the piece, negative for Lower pieces
+	 */
+	public static int middlegame(int piece, int square) {
+		return MIDDLEGAME[piece][square];
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code (see BitBoard.pieceOf)
+	 * @param square the square the piece is on
+	 * @return the endgame score of the piece, negative for Lower pieces
+	 */
+	public static int endgame(int piece, int square) {
+		return ENDGAME[piece][square];
+	}
+	
+	/**
+	 * 
+	 * @param ability the ability, BitBoard.PAWN through BitBoard.KING
+	 * @return the material the ability is worth, without its square
+	 */
+	public static int materialOf(int ability) {
+		return MATERIAL[ability];
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code (see BitBoard.pieceOf)
+	 * @return what the piece adds to the phase of the game
+	 */
+	public static int phaseOf(int piece) {
+		return PHASE[BitBoard.abilityOf(piece)];
+	}
+}
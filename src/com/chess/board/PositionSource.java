@@ -0,0 +1,16 @@
+package com.chess.board;
+
+/**
+ * PositionSource is implemented by the boards of this package that keep a
+ * BitBoard position, so a copy of it can be searched or counted without
+ * BoardActions having to know about BitBoard (see BitBoard.copyOf)
+ * @author bradley
+ *
+ */
+interface PositionSource {
+	/**
+	 * 
+	 * @return a bit board holding a copy of the position
+	 */
+	BitBoard copyPosition();
+}
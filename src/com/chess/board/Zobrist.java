@@ -0,0 +1,87 @@
+package com.chess.board;
+
+/**
+ * Zobrist holds the random keys that are XORed together to make the key of
+ * a position.  The keys come from a fixed seed, so the key of a position is
+ * the same every time the program runs
+ * @author bradley
+ *
+ */
+final class Zobrist {
+	private static final long[][] PIECE_SQUARE = new long[12][64];
+	private static final long[] CASTLING = new long[16];
+	private static final long[] EN_PASSANT = new long[8];
+	private static final long SIDE;
+	
+	private static long seed = 0x9E3779B97F4A7C15L;
+	
+	static {
+		for(int piece = 0; piece < 12; piece++) {
+			for(int square = 0; square < 64; square++) {
+				PIECE_SQUARE[piece][square] = nextKey();
+			}
+		}
+		
+		for(int rights = 1; rights < 16; rights++) {//No rights leaves the key alone
+			CASTLING[rights] = nextKey();
+		}
+		
+		for(int file = 0; file < 8; file++) {
+			EN_PASSANT[file] = nextKey();
+		}
+		
+		SIDE = nextKey();
+	}
+	
+	/**
+	 * 
+	 * @return the next value of a splitmix64 sequence
+	 */
+	private static long nextKey() {
+		long z = (seed += 0x9E3779B97F4A7C15L);
+		
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		
+		return z ^ (z >>> 31);
+	}
+	
+	private Zobrist() {
+	}
+	
+	/**
+	 * 
+	 * @param piece the piece code
+	 * @param square the square of the piece
+	 * @return the key of the piece on the square
+	 */
+	static long piece(int piece, int square) {
+		return PIECE_SQUARE[piece][square];
+	}
+	
+	/**
+	 * 
+	 * @param rights the castling rights that are left
+	 * @return the key of the castling rights
+	 */
+	static long castling(int rights) {
+		return CASTLING[rights];
+	}
+	
+	/**
+	 * 
+	 * @param square the en passant square
+	 * @return the key of the en passant file
+	 */
+	static long enPassant(int square) {
+		return EN_PASSANT[square % 8];
+	}
+	
+	/**
+	 * 
+	 * @return the key XORed in while Lower is to move
+	 */
+	static long side() {
+		return SIDE;
+	}
+}
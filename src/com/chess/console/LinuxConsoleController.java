@@ -10,6 +10,8 @@ import com.chess.board.BoardActions;
 import com.chess.board.Cell;
 import com.chess.board.CellColor;
 import com.chess.board.IllegalMoveException;
+import com.chess.board.PackedMove;
+import com.chess.engine.Engine;
 import com.chess.pieces.Piece;
 import com.chess.pieces.Player;
 import com.chess.pieces.PlayerColor;
@@ -23,6 +25,7 @@ public class LinuxConsoleController implements Application {
 	private int playerTurn;
 	private Player player1;
 	private Player player2;
+	private Engine engine;
 	
 	private String renderCell(Cell cell) {
 		String cellColor = cell.getColor() == CellColor.White ? WHITE_BACKGROUND :
@@ -66,16 +69,51 @@ public class LinuxConsoleController implements Application {
 	private String getPlayerInput() throws IOException {
 		Player current = playerTurn == 0 ? player1 : player2;
 		
-		System.out.print(current.getName() + " please make your move (a1h8) or type quit and press enter:");
+		System.out.print(current.getName() + " please make your move (a1h8, a7a8n to promote to a Knight) or type quit and press enter:");
 		BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
-		return br.readLine().substring(0, 4);
+		return br.readLine().trim();
+	}
+	
+	/**
+	 * Asks the engine for the move of an Auto player
+	 * @return the move or null when the player has no legal move
+	 */
+	private String getEngineMove(Player current) {
+		int packed = engine.bestMove(board);
+		String move = null;
+		
+		if(packed != PackedMove.NONE) {
+			move = Engine.toMoveInput(packed);
+			System.out.println(current.getName() + " plays " + move + " (depth " + engine.getDepth() + 
+					", score " + engine.getScore() + ", nodes " + engine.getNodes() + ")");
+		}
+		
+		return move;
 	}
 	
 	public LinuxConsoleController() {
+		this(PlayerType.Manual, PlayerType.Manual, null);
+	}
+	
+	/**
+	 * 
+	 * @param player1Type the type of Player 1
+	 * @param player2Type the type of Player 2
+	 * @param engine the engine that moves for Auto players, only needed when 
+	 *  there is one
+	 * @throws IllegalArgumentException
+	 */
+	public LinuxConsoleController(PlayerType player1Type, PlayerType player2Type, Engine engine) 
+			throws IllegalArgumentException {
+		if(engine == null && (player1Type == PlayerType.Auto || player2Type == PlayerType.Auto)) {
+			throw new IllegalArgumentException("engine is null");
+		}
+		
 		playerTurn = 0;
-		player1 = new Player(PlayerColor.Lower, PlayerType.Manual, "Player 1");
-		player2 = new Player(PlayerColor.Upper, PlayerType.Manual, "Player 2");
+		player1 = new Player(PlayerColor.Lower, player1Type, "Player 1");
+		player2 = new Player(PlayerColor.Upper, player2Type, "Player 2");
 		board = new Board(player1, player2);
+		this.engine = engine;
 	}
 	
 	@Override
@@ -88,24 +126,36 @@ public class LinuxConsoleController implements Application {
 
 	@Override
 	public void execute() {
-		boolean isCheckMate = false;
+		boolean isCheckMate = false, isStaleMate = false;
 		Player current = null;
 		
-		while(!isCheckMate) {
+		while(!isCheckMate && !isStaleMate) {
 			renderBoard();
 			
 			System.out.println();
 			
 			String move;
-			try {
-				move = getPlayerInput();
-			} catch (IOException e) {
-				System.out.println(e);
-				move = null;
+			Player mover = playerTurn == 0 ? player1 : player2;
+			
+			if(mover.getPlayerType() == PlayerType.Auto) {
+				move = getEngineMove(mover);
+				
+				if(move == null) {
+					System.out.println(mover.getName() + " has no legal move. game over");
+					return;
+				}
 			}
-			catch (StringIndexOutOfBoundsException e) {
-				System.out.println(e);
-				move = null;
+			else {
+				try {
+					move = getPlayerInput();
+				} catch (IOException e) {
+					System.out.println(e);
+					move = null;
+				}
+				catch (StringIndexOutOfBoundsException e) {
+					System.out.println(e);
+					move = null;
+				}
 			}
 			
 			if(move != null) {
@@ -131,6 +181,9 @@ public class LinuxConsoleController implements Application {
 								System.out.println(current.getName() + " is in check");
 							}
 						}
+						else {
+							isStaleMate = board.isStaleMate(current);
+						}
 
 					} catch (IllegalMoveException e) {
 						System.out.println(e);
@@ -141,7 +194,12 @@ public class LinuxConsoleController implements Application {
 		
 		renderBoard();
 		
-		System.out.println(current.getName() + " was checkmated. game over");
+		if(isStaleMate) {
+			System.out.println(current.getName() + " has no legal move. stalemate, game over");
+		}
+		else {
+			System.out.println(current.getName() + " was checkmated. game over");
+		}
 	}
 
 }
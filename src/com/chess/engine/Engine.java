@@ -0,0 +1,256 @@
+package com.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.chess.board.BitBoard;
+import com.chess.board.BoardActions;
+import com.chess.board.PackedMove;
+
+/**
+ * Engine picks moves for PlayerType.Auto players.  Each call searches a
+ * copy of the board, deepening one ply at a time until the depth is reached
+ * or the time for the move runs out. <br>
+ * With more than one thread the engine searches Lazy SMP style, helper 
+ * threads search the same position on copies of their own and share the 
+ * transposition table, the main search on the calling thread picks the move
+ * @author bradley
+ *
+ */
+public class Engine {
+	public static final int DEFAULT_HASH_SIZE = 16;//Megabytes
+	
+	public static final int NULL_MOVE_PRUNING = 1;
+	public static final int LATE_MOVE_REDUCTIONS = 2;
+	public static final int REVERSE_FUTILITY_PRUNING = 4;
+	public static final int MATE_DISTANCE_PRUNING = 8;
+	public static final int ALL_PRUNING = 15;
+	
+	private TranspositionTable table;
+	private Search search;
+	private Search[] helpers;
+	private ExecutorService pool;
+	private int maxDepth;
+	private long moveTime;
+	private int depth;
+	private int score;
+	private long nodes;
+	private int pruning;
+	
+	/**
+	 * 
+	 * @param maxDepth the deepest the search goes, 1 through 64
+	 * @param moveTime the milliseconds a move may take, 0 searches to maxDepth
+	 *  however long it takes
+	 * @throws IllegalArgumentException
+	 */
+	public Engine(int maxDepth, long moveTime) throws IllegalArgumentException {
+		this(maxDepth, moveTime, DEFAULT_HASH_SIZE);
+	}
+	
+	/**
+	 * 
+	 * @param maxDepth the deepest the search goes, 1 through 64
+	 * @param moveTime the milliseconds a move may take, 0 searches to maxDepth
+	 *  however long it takes
+	 * @param hashSize the megabytes of the transposition table
+	 * @throws IllegalArgumentException
+	 */
+	public Engine(int maxDepth, long moveTime, int hashSize) throws IllegalArgumentException {
+		this(maxDepth, moveTime, hashSize, 1);
+	}
+	
+	/**
+	 * 
+	 * @param maxDepth the deepest the search goes, 1 through 64
+	 * @param moveTime the milliseconds a move may take, 0 searches to maxDepth
+	 *  however long it takes
+	 * @param hashSize the megabytes of the transposition table
+	 * @param threads the threads searching each move, the calling thread is one
+	 * @throws IllegalArgumentException
+	 */
+	public Engine(int maxDepth, long moveTime, int hashSize, int threads) 
+			throws IllegalArgumentException {
+		if(threads < 1) {
+			throw new IllegalArgumentException("threads is less than 1");
+		}
+		
+		if(maxDepth < 1 || maxDepth > Search.MAX_DEPTH) {
+			throw new IllegalArgumentException("maxDepth is out of range");
+		}
+		
+		if(moveTime < 0) {
+			throw new IllegalArgumentException("moveTime is less than 0");
+		}
+		
+		this.maxDepth = maxDepth;
+		this.moveTime = moveTime;
+		pruning = ALL_PRUNING;
+		table = new TranspositionTable(hashSize);
+		search = new Search(table, 0);
+		helpers = new Search[threads - 1];
+		
+		for(int i = 0; i < helpers.length; i++) {
+			helpers[i] = new Search(table, i + 1);
+		}
+		
+		if(helpers.length > 0) {
+			pool = Executors.newFixedThreadPool(helpers.length, runnable -> {
+				Thread thread = new Thread(runnable, "search helper");
+				
+				thread.setDaemon(true);//Never keeps the application alive
+				return thread;
+			});
+		}
+	}
+	
+	/**
+	 * 
+	 * @param board the board to search, a BitBoard or a Board, it is not changed
+	 * @return the best move found for the player whose turn it is (see
+	 *  PackedMove), PackedMove.NONE when they have no legal move
+	 * @throws IllegalArgumentException
+	 */
+	public int bestMove(BoardActions board) throws IllegalArgumentException {
+		if(board == null) {
+			throw new IllegalArgumentException("board is null");
+		}
+		
+		BitBoard root = BitBoard.copyOf(board);
+		AtomicBoolean stop = new AtomicBoolean();
+		List<Future<Integer>> running = new ArrayList<>(helpers.length);
+		
+		table.newSearch();
+		
+		for(Search helper:helpers) {
+			BitBoard position = root.copyPosition();
+			
+			running.add(pool.submit(() -> helper.iterate(position, maxDepth, 0, stop)));
+		}
+		
+		int move = search.iterate(root, maxDepth, moveTime * 1000000L, stop);
+		
+		stop.set(true);
+		depth = search.getCompletedDepth();
+		score = search.getScore();
+		nodes = search.getNodes();
+		
+		for(int i = 0; i < helpers.length; i++) {
+			try {
+				running.get(i).get();//A helper's buffers are reused by the next move
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while stopping the helpers", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("a helper search failed", e.getCause());
+			}
+			
+			nodes += helpers[i].getNodes();
+		}
+		
+		return move;
+	}
+	
+	/**
+	 * Ends the helper threads, the engine searches on the calling thread only
+	 * from then on
+	 */
+	public void shutdown() {
+		if(pool != null) {
+			pool.shutdown();
+			pool = null;
+			helpers = new Search[0];
+		}
+	}
+	
+	/**
+	 * Turns the selective search techniques on and off, so their effect can
+	 * be measured.  Every technique is on to start with
+	 * @param pruning NULL_MOVE_PRUNING, LATE_MOVE_REDUCTIONS, 
+	 *  REVERSE_FUTILITY_PRUNING and MATE_DISTANCE_PRUNING ORed together, 0 
+	 *  searches every move to full depth
+	 * @throws IllegalArgumentException
+	 */
+	public void setPruning(int pruning) throws IllegalArgumentException {
+		if((pruning & ~ALL_PRUNING) != 0) {
+			throw new IllegalArgumentException("pruning has unknown flags");
+		}
+		
+		this.pruning = pruning;
+		search.setPruning(pruning);
+		
+		for(Search helper:helpers) {
+			helper.setPruning(pruning);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the selective search techniques in use (see setPruning)
+	 */
+	public int getPruning() {
+		return pruning;
+	}
+	
+	/**
+	 * Forgets every position searched, call it before a new game
+	 */
+	public void newGame() {
+		table.clear();
+	}
+	
+	/**
+	 * 
+	 * @return the deepest iteration the last search finished
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * 
+	 * @return the score of the last search in centipawns for the player who
+	 *  moved, mates score close to 32000
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * 
+	 * @return the threads searching each move
+	 */
+	public int getThreads() {
+		return helpers.length + 1;
+	}
+	
+	/**
+	 * 
+	 * @return the nodes the last search visited, on every thread
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+	
+	/**
+	 * 
+	 * @return if the score of the last search is a forced mate
+	 */
+	public boolean isMateScore() {
+		return Search.isMateScore(score);
+	}
+	
+	/**
+	 * 
+	 * @param move a move returned by bestMove
+	 * @return the move in the form makeMove accepts, with the promotion
+	 *  letter when a pawn reaches the last row
+	 */
+	public static String toMoveInput(int move) {
+		return PackedMove.toString(move);
+	}
+}
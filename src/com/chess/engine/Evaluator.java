@@ -0,0 +1,182 @@
+package com.chess.engine;
+
+import com.chess.board.Attacks;
+import com.chess.board.BitBoard;
+import com.chess.board.PieceSquareTables;
+
+/**
+ * Evaluator scores a position for the search.  Scores are in centipawns
+ * from the point of view of the player whose turn it is. <br>
+ * The board keeps its material and piece square totals as moves are made
+ * and taken back, so a score costs the same however many pieces are left.
+ * Doubled, isolated, backward and passed pawns are scored once for each
+ * pawn structure and kept in a pawn table, each evaluator has its own
+ * @author bradley
+ *
+ */
+public final class Evaluator {
+	private static final int DOUBLED_MIDDLEGAME = -10;
+	private static final int DOUBLED_ENDGAME = -20;
+	private static final int ISOLATED_MIDDLEGAME = -10;
+	private static final int ISOLATED_ENDGAME = -15;
+	private static final int BACKWARD_MIDDLEGAME = -8;
+	private static final int BACKWARD_ENDGAME = -10;
+	private static final int[] PASSED_MIDDLEGAME = { 0, 5, 10, 15, 25, 40, 60, 0 };//By rows advanced
+	private static final int[] PASSED_ENDGAME = { 0, 10, 20, 30, 50, 80, 120, 0 };
+	private static final int[] FREE_PASSED_ENDGAME = { 0, 2, 4, 6, 10, 16, 24, 0 };
+	
+	private static final long FILE_A = 0x0101010101010101L;
+	private static final long[] ADJACENT_FILES = createAdjacentFiles();
+	private static final long[][] FRONT_SPANS = createSpans(true);//Own and adjacent files ahead
+	private static final long[][] SUPPORT_SPANS = createSpans(false);//Adjacent files level and behind
+	
+	private PawnTable pawns;
+	private int[] totals;//Middlegame and endgame of the pawns, reused on each miss
+	
+	/**
+	 * Starts with an empty pawn table
+	 */
+	public Evaluator() {
+		pawns = new PawnTable(PawnTable.DEFAULT_ENTRIES);
+		totals = new int[2];
+	}
+	
+	private static long[] createAdjacentFiles() {
+		long[] files = new long[8];
+		
+		for(int file = 0; file < 8; file++) {
+			files[file] = (file > 0 ? FILE_A << (file - 1) : 0L) | (file < 7 ? FILE_A << (file + 1) : 0L);
+		}
+		
+		return files;
+	}
+	
+	private static long[][] createSpans(boolean front) {
+		long[][] spans = new long[2][64];
+		
+		for(int square = 0; square < 64; square++) {
+			int file = square % 8, row = square / 8;
+			long files = front ? ADJACENT_FILES[file] | FILE_A << file : ADJACENT_FILES[file];
+			
+			for(int other = 0; other < 64; other++) {
+				long bit = 1L << other;
+				
+				if((files & bit) != 0) {
+					int otherRow = other / 8;
+					
+					if(front ? otherRow > row : otherRow <= row) {
+						spans[BitBoard.UPPER][square] |= bit;
+					}
+					
+					if(front ? otherRow < row : otherRow >= row) {
+						spans[BitBoard.LOWER][square] |= bit;
+					}
+				}
+			}
+		}
+		
+		return spans;
+	}
+	
+	private static int rowsAdvanced(int color, int square) {
+		return color == BitBoard.UPPER ? square / 8 : 7 - square / 8;
+	}
+	
+	/**
+	 * Scores the pawns of one color, the score is added to the middlegame and
+	 * endgame totals given
+	 * @return the passed pawns of the color
+	 */
+	private static long scorePawns(long own, long enemy, int color, int[] totals) {
+		int sign = color == BitBoard.UPPER ? 1 : -1;
+		long passed = 0L;
+		
+		for(int file = 0; file < 8; file++) {
+			int onFile = Long.bitCount(own & FILE_A << file);
+			
+			if(onFile > 1) {
+				totals[0] += sign * DOUBLED_MIDDLEGAME * (onFile - 1);
+				totals[1] += sign * DOUBLED_ENDGAME * (onFile - 1);
+			}
+		}
+		
+		for(long remaining = own; remaining != 0; remaining &= remaining - 1) {
+			int square = Long.numberOfTrailingZeros(remaining), file = square % 8;
+			int stop = square + (color == BitBoard.UPPER ? 8 : -8);
+			
+			if((own & ADJACENT_FILES[file]) == 0) {
+				totals[0] += sign * ISOLATED_MIDDLEGAME;
+				totals[1] += sign * ISOLATED_ENDGAME;
+			}
+			else if((own & SUPPORT_SPANS[color][square]) == 0 && stop >= 0 && stop < 64 &&
+					(Attacks.pawn(color, stop) & enemy) != 0) {
+				totals[0] += sign * BACKWARD_MIDDLEGAME;
+				totals[1] += sign * BACKWARD_ENDGAME;
+			}
+			
+			if((enemy & FRONT_SPANS[color][square]) == 0) {
+				int advanced = rowsAdvanced(color, square);
+				
+				passed |= 1L << square;
+				totals[0] += sign * PASSED_MIDDLEGAME[advanced];
+				totals[1] += sign * PASSED_ENDGAME[advanced];
+			}
+		}
+		
+		return passed;
+	}
+	
+	/**
+	 * Passed pawns are worth more when nothing stands in front of them, that
+	 * depends on more than the pawns so it is not kept in the pawn table
+	 */
+	private static int scoreFreePassed(BitBoard position, long passed) {
+		int score = 0;
+		
+		for(long remaining = passed; remaining != 0; remaining &= remaining - 1) {
+			int square = Long.numberOfTrailingZeros(remaining);
+			int color = BitBoard.colorOf(position.getPieceAt(square));
+			int stop = square + (color == BitBoard.UPPER ? 8 : -8);
+			
+			if(position.getPieceAt(stop) == BitBoard.EMPTY) {
+				int bonus = FREE_PASSED_ENDGAME[rowsAdvanced(color, square)];
+				
+				score += color == BitBoard.UPPER ? bonus : -bonus;
+			}
+		}
+		
+		return score;
+	}
+	
+	/**
+	 * The middlegame and endgame scores are tapered by the phase, with more
+	 * pieces on the board the middlegame score counts for more
+	 * @param position the position to score
+	 * @return the score of the side to move less the score of the other side
+	 */
+	public int evaluate(BitBoard position) {
+		long pawnKey = position.getPawnKey();
+		int index = pawns.indexOf(pawnKey);
+		
+		if(!pawns.contains(index, pawnKey)) {
+			long upper = position.getPieces(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.PAWN));
+			long lower = position.getPieces(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.PAWN));
+			
+			totals[0] = 0;
+			totals[1] = 0;
+			
+			long passed = scorePawns(upper, lower, BitBoard.UPPER, totals) |
+					scorePawns(lower, upper, BitBoard.LOWER, totals);
+			
+			pawns.store(index, pawnKey, totals[0], totals[1], passed);
+		}
+		
+		int phase = Math.min(position.getPhase(), PieceSquareTables.MAX_PHASE);
+		int middlegame = position.getMiddlegameScore() + pawns.getMiddlegame(index);
+		int endgame = position.getEndgameScore() + pawns.getEndgame(index) +
+				scoreFreePassed(position, pawns.getPassed(index));
+		int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+		
+		return position.getSideToMove() == BitBoard.UPPER ? score : -score;
+	}
+}
@@ -0,0 +1,153 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+
+/**
+ * MoveOrder scores moves so the ones most likely to cause a cutoff are
+ * searched first.  Captures go by MVV-LVA (most valuable victim, least
+ * valuable attacker), quiet moves by killer moves, countermoves and a
+ * history of the cutoffs they caused.  The tables belong to one search
+ * thread, so none of them need locks (see MovePicker)
+ * @author bradley
+ *
+ */
+public final class MoveOrder {
+	private static final int HISTORY_MAX = 1 << 20;
+	
+	private int[][] killers;
+	private int[] history;//Indexed by color, from and to
+	private int[] counters;//Indexed by the piece moved last and its square
+	
+	public MoveOrder() {
+		killers = new int[Search.MAX_DEPTH + 1][2];
+		history = new int[2 * 64 * 64];
+		counters = new int[12 * 64];
+	}
+	
+	private static int historyIndexOf(int color, int move) {
+		return (color * 64 + PackedMove.getFrom(move)) * 64 + PackedMove.getTo(move);
+	}
+	
+	private static int counterIndexOf(BitBoard position, int previous) {
+		int to = PackedMove.getTo(previous), piece = position.getPieceAt(to);
+		
+		return piece == BitBoard.EMPTY ? -1 : piece * 64 + to;
+	}
+	
+	/**
+	 * 
+	 * @param move a packed move
+	 * @return if the move neither captures nor promotes
+	 */
+	public static boolean isQuiet(int move) {
+		return !PackedMove.isCapture(move) && PackedMove.getPromotion(move) == 0;
+	}
+	
+	/**
+	 * Forgets the killers and countermoves and weakens the history, done
+	 * before each new search
+	 */
+	public void age() {
+		for(int[] slots:killers) {
+			slots[0] = PackedMove.NONE;
+			slots[1] = PackedMove.NONE;
+		}
+		
+		for(int i = 0; i < history.length; i++) {
+			history[i] /= 8;
+		}
+		
+		Arrays.fill(counters, PackedMove.NONE);
+	}
+	
+	/**
+	 * 
+	 * @param position the position the move is made from
+	 * @param move a capture or promotion
+	 * @return the MVV-LVA score of the move, higher is better
+	 */
+	public int captureScoreOf(BitBoard position, int move) {
+		int attacker = BitBoard.abilityOf(position.getPieceAt(PackedMove.getFrom(move)));
+		int victim = PackedMove.isCapture(move) && !PackedMove.isEnPassant(move) ?
+				BitBoard.abilityOf(position.getPieceAt(PackedMove.getTo(move))) : BitBoard.PAWN;
+		
+		return (victim + PackedMove.getPromotion(move)) * 8 - attacker;
+	}
+	
+	/**
+	 * 
+	 * @param color the ordinal of the PlayerColor moving
+	 * @param move a quiet move
+	 * @return the history score of the move, higher is better
+	 */
+	public int historyOf(int color, int move) {
+		return history[historyIndexOf(color, move)];
+	}
+	
+	/**
+	 * 
+	 * @param ply the distance from the root
+	 * @param slot 0 for the newest killer, 1 for the one before
+	 * @return the killer move without flags or PackedMove.NONE
+	 */
+	public int killerOf(int ply, int slot) {
+		return killers[ply][slot];
+	}
+	
+	/**
+	 * 
+	 * @param position the position reached by the previous move
+	 * @param previous the move played to reach the position or PackedMove.NONE
+	 * @return the move that last refuted the previous move or PackedMove.NONE
+	 */
+	public int counterOf(BitBoard position, int previous) {
+		int counterIndex = previous == PackedMove.NONE ? -1 : counterIndexOf(position, previous);
+		
+		return counterIndex < 0 ? PackedMove.NONE : counters[counterIndex];
+	}
+	
+	/**
+	 * Rewards a quiet move that caused a cutoff and punishes the quiet moves
+	 * tried before it
+	 * @param position the position the moves were made from
+	 * @param move the move that caused the cutoff
+	 * @param quiets the quiet moves searched before it
+	 * @param quietCount the number of quiet moves searched before it
+	 * @param depth the depth left
+	 * @param ply the distance from the root
+	 * @param previous the move played to reach the position or PackedMove.NONE
+	 */
+	public void update(BitBoard position, int move, int[] quiets, int quietCount, int depth, int ply, int previous) {
+		int color = position.getSideToMove(), plain = PackedMove.withoutFlags(move);
+		int bonus = Math.min(depth * depth, 400);
+		int[] slots = killers[ply];
+		
+		if(slots[0] != plain) {
+			slots[1] = slots[0];
+			slots[0] = plain;
+		}
+		
+		if(previous != PackedMove.NONE) {
+			int counterIndex = counterIndexOf(position, previous);
+			
+			if(counterIndex >= 0) {
+				counters[counterIndex] = plain;
+			}
+		}
+		
+		addHistory(historyIndexOf(color, move), bonus);
+		
+		for(int i = 0; i < quietCount; i++) {
+			addHistory(historyIndexOf(color, quiets[i]), -bonus);
+		}
+	}
+	
+	/**
+	 * Keeps every entry between -HISTORY_MAX and HISTORY_MAX
+	 */
+	private void addHistory(int index, int bonus) {
+		history[index] += bonus - history[index] * Math.abs(bonus) / HISTORY_MAX;
+	}
+}
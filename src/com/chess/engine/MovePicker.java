@@ -0,0 +1,250 @@
+package com.chess.engine;
+
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+import com.chess.board.PieceSquareTables;
+
+/**
+ * MovePicker hands out the moves of a position one at a time, in stages.
+ * The hash move comes first, then the captures that do not lose material,
+ * the killer moves and countermove, the quiet moves and last the captures
+ * that lose material.  A stage is only generated once the one before it
+ * runs out, so a cutoff early on never pays for the quiet moves. <br>
+ * Moves are pseudo legal, the search has to throw away any move that
+ * leaves its own King in check.  Captures lose material when the static
+ * exchange evaluation is below zero (see StaticExchange)
+ * @author bradley
+ *
+ */
+final class MovePicker {
+	private static final int HASH = 0;
+	private static final int CAPTURES_INIT = 1;
+	private static final int GOOD_CAPTURES = 2;
+	private static final int KILLERS = 3;
+	private static final int QUIETS_INIT = 4;
+	private static final int QUIETS = 5;
+	private static final int BAD_CAPTURES = 6;
+	private static final int DONE = 7;
+	
+	private MoveOrder order;
+	private StaticExchange exchange;
+	private BitBoard position;
+	private int[] moves;
+	private int[] scores;
+	private int[] bad;
+	private int[] special;//Killers and the countermove
+	private int stage;
+	private int index;
+	private int count;
+	private int badCount;
+	private int specialCount;
+	private int hashMove;
+	private int ply;
+	private int previous;
+	private boolean capturesOnly;
+	
+	MovePicker(MoveOrder order, StaticExchange exchange) {
+		this.order = order;
+		this.exchange = exchange;
+		moves = new int[BitBoard.MAX_MOVES];
+		scores = new int[BitBoard.MAX_MOVES];
+		bad = new int[BitBoard.MAX_MOVES];
+		special = new int[3];
+	}
+	
+	/**
+	 * Starts picking the moves of a position
+	 * @param position the position the moves are made from
+	 * @param hashMove the move from the transposition table or PackedMove.NONE
+	 * @param ply the distance from the root
+	 * @param previous the move played to reach the position or PackedMove.NONE
+	 */
+	void init(BitBoard position, int hashMove, int ply, int previous) {
+		this.position = position;
+		this.hashMove = position.toPseudoLegalMove(hashMove);
+		this.ply = ply;
+		this.previous = previous;
+		capturesOnly = false;
+		stage = HASH;
+	}
+	
+	/**
+	 * Starts picking the captures and promotions of a position that do not
+	 * lose material, for the quiescence search
+	 * @param position the position the moves are made from
+	 */
+	void initCaptures(BitBoard position) {
+		this.position = position;
+		hashMove = PackedMove.NONE;
+		capturesOnly = true;
+		stage = CAPTURES_INIT;
+	}
+	
+	private static boolean isSame(int first, int second) {
+		return PackedMove.withoutFlags(first) == PackedMove.withoutFlags(second);
+	}
+	
+	private boolean isSpecial(int move) {
+		boolean found = false;
+		
+		for(int i = 0; i < specialCount && !found; i++) {
+			found = isSame(special[i], move);
+		}
+		
+		return found;
+	}
+	
+	/**
+	 * Taking a piece worth at least the capturing piece never loses material,
+	 * only the other captures need the exchanges worked out
+	 */
+	private boolean isLosing(int move) {
+		boolean losing;
+		
+		if(PackedMove.getPromotion(move) == 0 && !PackedMove.isEnPassant(move)) {
+			int attacker = BitBoard.abilityOf(position.getPieceAt(PackedMove.getFrom(move)));
+			int victim = BitBoard.abilityOf(position.getPieceAt(PackedMove.getTo(move)));
+			
+			losing = PieceSquareTables.materialOf(attacker) > PieceSquareTables.materialOf(victim) &&
+					exchange.evaluate(position, move) < 0;
+		}
+		else {
+			losing = exchange.evaluate(position, move) < 0;
+		}
+		
+		return losing;
+	}
+	
+	/**
+	 * Selection sorts one move at a time, a cutoff usually comes before the
+	 * rest of the list is needed
+	 */
+	private int pickNext() {
+		int best = index;
+		
+		for(int i = index + 1; i < count; i++) {
+			if(scores[i] > scores[best]) {
+				best = i;
+			}
+		}
+		
+		int move = moves[best], score = scores[best];
+		
+		moves[best] = moves[index];
+		scores[best] = scores[index];
+		moves[index] = move;
+		scores[index++] = score;
+		
+		return move;
+	}
+	
+	/**
+	 * The killers and countermove are only kept when they are quiet moves
+	 * that can be made in this position
+	 */
+	private void addSpecial(int move) {
+		int checked = move == PackedMove.NONE ? move : position.toPseudoLegalMove(move);
+		
+		if(checked != PackedMove.NONE && MoveOrder.isQuiet(checked) &&
+				!isSame(checked, hashMove) && !isSpecial(checked)) {
+			special[specialCount++] = checked;
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the next move or PackedMove.NONE when there are no more
+	 */
+	int next() {
+		int move = PackedMove.NONE;
+		
+		while(move == PackedMove.NONE && stage != DONE) {
+			switch(stage) {
+			case HASH:
+				move = hashMove;
+				stage = CAPTURES_INIT;
+				break;
+			case CAPTURES_INIT:
+				count = position.generateCaptures(moves);
+				index = 0;
+				badCount = 0;
+				
+				for(int i = 0; i < count; i++) {
+					scores[i] = order.captureScoreOf(position, moves[i]);
+				}
+				
+				stage = GOOD_CAPTURES;
+				break;
+			case GOOD_CAPTURES:
+				if(index < count) {
+					int capture = pickNext();
+					
+					if(isSame(capture, hashMove)) {
+						continue;
+					}
+					else if(isLosing(capture)) {
+						bad[badCount++] = capture;
+					}
+					else {
+						move = capture;
+					}
+				}
+				else if(capturesOnly) {
+					stage = DONE;
+				}
+				else {
+					specialCount = 0;
+					addSpecial(order.killerOf(ply, 0));
+					addSpecial(order.killerOf(ply, 1));
+					addSpecial(order.counterOf(position, previous));
+					index = 0;
+					stage = KILLERS;
+				}
+				break;
+			case KILLERS:
+				if(index < specialCount) {
+					move = special[index++];
+				}
+				else {
+					stage = QUIETS_INIT;
+				}
+				break;
+			case QUIETS_INIT:
+				count = position.generateQuiets(moves);
+				index = 0;
+				
+				for(int i = 0, color = position.getSideToMove(); i < count; i++) {
+					scores[i] = order.historyOf(color, moves[i]);
+				}
+				
+				stage = QUIETS;
+				break;
+			case QUIETS:
+				if(index < count) {
+					int quiet = pickNext();
+					
+					if(!isSame(quiet, hashMove) && !isSpecial(quiet)) {
+						move = quiet;
+					}
+				}
+				else {
+					index = 0;
+					stage = BAD_CAPTURES;
+				}
+				break;
+			case BAD_CAPTURES:
+				if(index < badCount) {
+					move = bad[index++];
+				}
+				else {
+					stage = DONE;
+				}
+				break;
+			default:
+				stage = DONE;
+			}
+		}
+		
+		return move;
+	}
+}
@@ -0,0 +1,82 @@
+package com.chess.engine;
+
+/**
+ * PawnTable remembers the pawn structure scores of positions by their pawn
+ * key.  Pawns move rarely, so most positions a search reaches find their
+ * pawns already scored. <br>
+ * Each entry is kept in parallel arrays and a key maps to exactly one
+ * entry, a new entry replaces whatever was there.  An empty entry holds
+ * the scores of pawn key 0, no pawns at all, which are all 0 anyway.  A
+ * table belongs to one search thread
+ * @author bradley
+ *
+ */
+final class PawnTable {
+	static final int DEFAULT_ENTRIES = 1 << 14;
+	
+	private long[] keys;
+	private int[] middlegame;
+	private int[] endgame;
+	private long[] passed;
+	private int mask;
+	
+	/**
+	 * 
+	 * @param entries the number of entries, rounded down to a power of two
+	 */
+	PawnTable(int entries) {
+		int size = Integer.highestOneBit(Math.max(entries, 1));
+		
+		keys = new long[size];
+		middlegame = new int[size];
+		endgame = new int[size];
+		passed = new long[size];
+		mask = size - 1;
+	}
+	
+	/**
+	 * 
+	 * @param pawnKey the pawn key of the position
+	 * @return the entry the key maps to
+	 */
+	int indexOf(long pawnKey) {
+		return (int)pawnKey & mask;
+	}
+	
+	/**
+	 * 
+	 * @param index the entry returned by indexOf
+	 * @param pawnKey the pawn key of the position
+	 * @return if the entry holds the scores of the pawn key
+	 */
+	boolean contains(int index, long pawnKey) {
+		return keys[index] == pawnKey;
+	}
+	
+	/**
+	 * 
+	 * @param index the entry returned by indexOf
+	 * @param pawnKey the pawn key of the position
+	 * @param middlegameScore the middlegame pawn score, Upper less Lower
+	 * @param endgameScore the endgame pawn score, Upper less Lower
+	 * @param passedPawns the passed pawns of both colors
+	 */
+	void store(int index, long pawnKey, int middlegameScore, int endgameScore, long passedPawns) {
+		keys[index] = pawnKey;
+		middlegame[index] = middlegameScore;
+		endgame[index] = endgameScore;
+		passed[index] = passedPawns;
+	}
+	
+	int getMiddlegame(int index) {
+		return middlegame[index];
+	}
+	
+	int getEndgame(int index) {
+		return endgame[index];
+	}
+	
+	long getPassed(int index) {
+		return passed[index];
+	}
+}
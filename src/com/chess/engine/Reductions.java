@@ -0,0 +1,50 @@
+package com.chess.engine;
+
+import com.chess.board.BitBoard;
+
+/**
+ * Reductions holds how many plies shallower a late quiet move is searched
+ * first.  Later moves and deeper searches are reduced more, by the
+ * logarithm of each, and a move with a good history is reduced less. <br>
+ * A history gains at most 400 a cutoff and is divided by 8 between
+ * searches, so HISTORY_DIVISOR is about what a move that keeps cutting off
+ * carries into the next search
+ * @author bradley
+ *
+ */
+public final class Reductions {
+	private static final int HISTORY_DIVISOR = 8192;//A history this good saves a ply of reduction
+	private static final int[][] REDUCTIONS = createReductions();
+	
+	private Reductions() {
+	}
+	
+	private static int[][] createReductions() {
+		int[][] reductions = new int[Search.MAX_DEPTH + 1][BitBoard.MAX_MOVES];
+		
+		for(int depth = 1; depth <= Search.MAX_DEPTH; depth++) {
+			for(int index = 1; index < BitBoard.MAX_MOVES; index++) {
+				reductions[depth][index] = (int)(0.75 + Math.log(depth) * Math.log(index) / 2.25);
+			}
+		}
+		
+		return reductions;
+	}
+	
+	/**
+	 * 
+	 * @param depth the depth left before the move
+	 * @param index where the move is in the order of moves searched, from 1
+	 * @param history the history of the move (see MoveOrder.historyOf)
+	 * @param pvNode if the move is searched with an open window
+	 * @return the plies to take off the depth, never more than leaves 1
+	 */
+	public static int of(int depth, int index, int history, boolean pvNode) {
+		int reduction = REDUCTIONS[Math.max(0, Math.min(depth, Search.MAX_DEPTH))]
+				[Math.max(0, Math.min(index, BitBoard.MAX_MOVES - 1))];
+		
+		reduction -= history / HISTORY_DIVISOR + (pvNode ? 1 : 0);
+		
+		return Math.max(0, Math.min(reduction, depth - 2));
+	}
+}
@@ -0,0 +1,414 @@
+package com.chess.engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+
+/**
+ * Search runs an iterative deepening principal variation search on a copy
+ * of a position.  Nothing is allocated once it is built, every ply has its
+ * own move buffer.  What it finds is kept in a transposition table, which
+ * may be shared with other searches. <br>
+ * Helper searches (Lazy SMP) run beside the main search on the same table,
+ * each skipping its own set of depths so they fill the table with entries
+ * the main search has not reached yet. <br>
+ * Null window nodes are pruned with null moves and reverse futility, late
+ * quiet moves are searched to a reduced depth first and scores beyond a
+ * mate already found are cut off, each can be turned off (see Engine)
+ * @author bradley
+ *
+ */
+class Search {
+	static final int MATE = 32000;
+	static final int INFINITY = MATE + 1;
+	static final int DRAW = 0;
+	static final int MAX_DEPTH = 64;
+	
+	private static final int CHECK_INTERVAL = 1023;//Nodes between looks at the clock
+	//Helper i skips blocks of SKIP_SIZE depths starting at its SKIP_PHASE
+	private static final int[] SKIP_SIZE = { 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4 };
+	private static final int[] SKIP_PHASE = { 0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7 };
+	private static final int FUTILITY_MARGIN = 100;//Per ply of depth left
+	private static final int FUTILITY_DEPTH = 6;
+	private static final int NULL_MOVE_DEPTH = 3;
+	private static final int REDUCTION_DEPTH = 3;
+	
+	private BitBoard position;
+	private TranspositionTable table;
+	private int helper;
+	private AtomicBoolean stop;
+	private MovePicker[] pickers;
+	private int[][] quiets;
+	private int[] played;
+	private MoveOrder order;
+	private Evaluator evaluator;
+	private int[][] pv;
+	private int[] pvLength;
+	private long[] keys;
+	private long nodes;
+	private long deadline;
+	private boolean timed;
+	private boolean stopped;
+	private int completedDepth;
+	private int score;
+	private int pruning;
+	
+	/**
+	 * 
+	 * @param table the table shared by every search of the engine
+	 * @param helper 0 for the main search, 1 and up for helpers
+	 */
+	Search(TranspositionTable table, int helper) {
+		this.table = table;
+		this.helper = helper;
+		pruning = Engine.ALL_PRUNING;
+		quiets = new int[MAX_DEPTH + 1][BitBoard.MAX_MOVES];
+		played = new int[MAX_DEPTH + 1];
+		order = new MoveOrder();
+		evaluator = new Evaluator();
+		pickers = new MovePicker[MAX_DEPTH + 1];
+		
+		StaticExchange exchange = new StaticExchange();//Only one ply evaluates at a time
+		
+		for(int i = 0; i < pickers.length; i++) {
+			pickers[i] = new MovePicker(order, exchange);
+		}
+		
+		pv = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+		pvLength = new int[MAX_DEPTH + 1];
+		keys = new long[MAX_DEPTH + 1];
+	}
+	
+	/**
+	 * 
+	 * @param pruning the Engine pruning flags the search uses
+	 */
+	void setPruning(int pruning) {
+		this.pruning = pruning;
+	}
+	
+	private boolean isPruning(int flag) {
+		return (pruning & flag) != 0;
+	}
+	
+	/**
+	 * 
+	 * @param score a search score
+	 * @return if the score is a forced mate for either side
+	 */
+	static boolean isMateScore(int score) {
+		return Math.abs(score) >= MATE - MAX_DEPTH;
+	}
+	
+	/**
+	 * Only positions an even number of plies back, at least 4, can repeat.
+	 * Positions before the root are not known, so only the path is checked,
+	 * back as far as the last null move
+	 */
+	private boolean isRepetition(int ply) {
+		boolean found = false;
+		
+		for(int i = ply - 1; i >= 0 && played[i] != PackedMove.NONE && !found; i--) {
+			found = ply - i >= 4 && (ply - i) % 2 == 0 && keys[i] == keys[ply];
+		}
+		
+		return found;
+	}
+	
+	/**
+	 * Null moves are unsafe when the side to move has only pawns, those are
+	 * the positions where having to move hurts (zugzwang)
+	 */
+	private boolean hasPieces(int color) {
+		int count = 0;
+		
+		for(int ability = BitBoard.KNIGHT; ability <= BitBoard.QUEEN; ability++) {
+			count += position.getPieceCount(BitBoard.pieceOf(color, ability));
+		}
+		
+		return count > 0;
+	}
+	
+	private void checkTime() {
+		if((nodes & CHECK_INTERVAL) == 0) {
+			if(stop.get() || (timed && completedDepth > 0 && System.nanoTime() - deadline > 0)) {
+				stopped = true;
+			}
+		}
+	}
+	
+	private boolean isSkipped(int depth) {
+		int index = (helper - 1) % SKIP_SIZE.length;
+		
+		return helper > 0 && ((depth + SKIP_PHASE[index]) / SKIP_SIZE[index]) % 2 != 0;
+	}
+	
+	/**
+	 * Searches captures only until the position is quiet, so the horizon
+	 * never falls in the middle of an exchange.  The side to move may stand
+	 * pat on the evaluation instead of capturing, captures that lose material
+	 * are not searched
+	 */
+	private int quiesce(int alpha, int beta, int ply) {
+		nodes++;
+		checkTime();
+		
+		int best = evaluator.evaluate(position);
+		
+		if(best >= beta || ply >= MAX_DEPTH) {
+			return best;
+		}
+		
+		MovePicker picker = pickers[ply];
+		int color = position.getSideToMove(), move;
+		
+		alpha = Math.max(alpha, best);
+		picker.initCaptures(position);
+		
+		while(!stopped && (move = picker.next()) != PackedMove.NONE) {
+			position.make(move);
+			
+			if(position.isInCheck(color)) {
+				position.unmake();
+				continue;
+			}
+			
+			int value = -quiesce(-beta, -alpha, ply + 1);
+			
+			position.unmake();
+			
+			if(value > best) {
+				best = value;
+				
+				if(value > alpha) {
+					alpha = value;
+					
+					if(alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		
+		return best;
+	}
+	
+	private int pvs(int depth, int alpha, int beta, int ply) {
+		pvLength[ply] = ply;
+		
+		if(ply > 0 && (position.getHalfmoveClock() >= 100 || isRepetition(ply))) {
+			return DRAW;
+		}
+		
+		int color = position.getSideToMove();
+		boolean inCheck = position.isInCheck(color);
+		
+		if(inCheck) {//Look one ply further at checks
+			depth++;
+		}
+		
+		if(depth <= 0) {
+			return quiesce(alpha, beta, ply);
+		}
+		
+		nodes++;
+		checkTime();
+		
+		if(ply >= MAX_DEPTH) {
+			return evaluator.evaluate(position);
+		}
+		
+		if(ply > 0 && isPruning(Engine.MATE_DISTANCE_PRUNING)) {//No score beats a shorter mate
+			alpha = Math.max(alpha, -MATE + ply);
+			beta = Math.min(beta, MATE - ply - 1);
+			
+			if(alpha >= beta) {
+				return alpha;
+			}
+		}
+		
+		long key = keys[ply], entry = table.probe(key);
+		int hashMove = ply == 0 && pv[0][0] != PackedMove.NONE ? pv[0][0] : TranspositionTable.moveOf(entry);
+		
+		if(entry != 0L && ply > 0 && beta - alpha == 1 && TranspositionTable.depthOf(entry) >= depth) {
+			int stored = TranspositionTable.scoreOf(entry, ply), bound = TranspositionTable.boundOf(entry);
+			
+			if(bound == TranspositionTable.EXACT || 
+					(bound == TranspositionTable.LOWER_BOUND && stored >= beta) ||
+					(bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+				return stored;
+			}
+		}
+		
+		boolean pvNode = beta - alpha > 1;
+		
+		if(!pvNode && !inCheck && ply > 0 && !isMateScore(beta)) {
+			int staticScore = evaluator.evaluate(position);
+			
+			if(isPruning(Engine.REVERSE_FUTILITY_PRUNING) && depth <= FUTILITY_DEPTH &&
+					staticScore - FUTILITY_MARGIN * depth >= beta) {//Too far ahead for a quiet search to lose it
+				return staticScore;
+			}
+			
+			if(isPruning(Engine.NULL_MOVE_PRUNING) && depth >= NULL_MOVE_DEPTH && staticScore >= beta &&
+					played[ply - 1] != PackedMove.NONE && hasPieces(color)) {
+				int reduction = 2 + depth / 4;
+				
+				played[ply] = PackedMove.NONE;
+				position.makeNullMove();
+				keys[ply + 1] = position.getPositionKey();
+				
+				int value = -pvs(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+				
+				position.unmake();
+				
+				if(!stopped && value >= beta) {//Passing still fails high, a move would too
+					return isMateScore(value) ? beta : value;
+				}
+			}
+		}
+		
+		MovePicker picker = pickers[ply];
+		int[] tried = quiets[ply];
+		int previous = ply > 0 ? played[ply - 1] : PackedMove.NONE;
+		int best = -INFINITY, bestMove = PackedMove.NONE, original = alpha, quietCount = 0, legal = 0, move;
+		
+		picker.init(position, hashMove, ply, previous);
+		
+		while(!stopped && (move = picker.next()) != PackedMove.NONE) {
+			int value;
+			
+			position.make(move);
+			
+			if(position.isInCheck(color)) {//Pseudo legal, it left the King in check
+				position.unmake();
+				continue;
+			}
+			
+			played[ply] = move;
+			keys[ply + 1] = position.getPositionKey();
+			
+			if(legal++ == 0) {
+				value = -pvs(depth - 1, -beta, -alpha, ply + 1);
+			}
+			else {//Prove the move is no better with a null window first
+				int reduction = 0;
+				
+				if(isPruning(Engine.LATE_MOVE_REDUCTIONS) && depth >= REDUCTION_DEPTH && !inCheck &&
+						MoveOrder.isQuiet(move) && !position.isInCheck(color ^ 1)) {
+					reduction = Reductions.of(depth, legal, order.historyOf(color, move), pvNode);
+				}
+				
+				value = -pvs(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+				
+				if(reduction > 0 && value > alpha) {//Not as bad as it looked, search it to full depth
+					value = -pvs(depth - 1, -alpha - 1, -alpha, ply + 1);
+				}
+				
+				if(value > alpha && value < beta) {
+					value = -pvs(depth - 1, -beta, -alpha, ply + 1);
+				}
+			}
+			
+			position.unmake();
+			
+			if(!stopped && value > best) {
+				best = value;
+				
+				if(value > alpha) {
+					bestMove = move;
+					alpha = value;
+					pv[ply][ply] = move;
+					System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+					pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+					
+					if(alpha >= beta) {
+						if(MoveOrder.isQuiet(move)) {
+							order.update(position, move, tried, quietCount, depth, ply, previous);
+						}
+						
+						break;
+					}
+				}
+			}
+			
+			if(MoveOrder.isQuiet(move)) {
+				tried[quietCount++] = move;
+			}
+		}
+		
+		if(legal == 0 && !stopped) {
+			return inCheck ? -MATE + ply : DRAW;
+		}
+		
+		if(!stopped) {
+			int bound = best >= beta ? TranspositionTable.LOWER_BOUND : 
+					best > original ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+			
+			table.store(key, bestMove, best, depth, bound, ply);
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Searches one ply deeper each iteration until maxDepth is done or the
+	 * time runs out, the first iteration is always finished
+	 * @param position the position to search, it is left as it was found
+	 * @param maxDepth the deepest iteration, at most MAX_DEPTH
+	 * @param budget the nanoseconds the search may take, 0 for no limit
+	 * @param stop set to end the search early, helpers run until it is set
+	 *  or they reach maxDepth
+	 * @return the best move found or PackedMove.NONE when there is no legal move
+	 */
+	int iterate(BitBoard position, int maxDepth, long budget, AtomicBoolean stop) {
+		int bestMove = PackedMove.NONE;
+		long start = System.nanoTime();
+		
+		this.position = position;
+		this.stop = stop;
+		deadline = start + budget;
+		timed = budget > 0;
+		nodes = 0;
+		stopped = false;
+		completedDepth = 0;
+		score = 0;
+		pv[0][0] = PackedMove.NONE;
+		order.age();
+		keys[0] = position.getPositionKey();
+		
+		for(int depth = 1; depth <= Math.min(maxDepth, MAX_DEPTH) && !stopped; depth++) {
+			if(isSkipped(depth)) {
+				continue;
+			}
+			
+			int value = pvs(depth, -INFINITY, INFINITY, 0);
+			
+			if(!stopped) {
+				completedDepth = depth;
+				score = value;
+				bestMove = pvLength[0] > 0 ? pv[0][0] : PackedMove.NONE;
+				
+				//The next iteration takes longer than all before it together
+				if(isMateScore(value) || bestMove == PackedMove.NONE ||
+						(timed && System.nanoTime() - start > budget / 2)) {
+					break;
+				}
+			}
+		}
+		
+		return bestMove;
+	}
+	
+	long getNodes() {
+		return nodes;
+	}
+	
+	int getCompletedDepth() {
+		return completedDepth;
+	}
+	
+	int getScore() {
+		return score;
+	}
+}
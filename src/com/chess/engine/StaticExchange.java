@@ -0,0 +1,109 @@
+package com.chess.engine;
+
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+import com.chess.board.PieceSquareTables;
+
+/**
+ * StaticExchange works out what a capture wins once every piece that
+ * attacks the square has taken its turn, cheapest piece first.  Either side
+ * may stop taking when going on would lose more.  Pieces behind a piece
+ * that has taken join in through the attack tables. <br>
+ * Pins and checks are not looked at, the result is an estimate.  Each
+ * search thread keeps its own instance, the swap list is reused so nothing
+ * is allocated per call
+ * @author bradley
+ *
+ */
+public final class StaticExchange {
+	private static final int MAX_EXCHANGE = 32;
+	
+	private int[] gain;
+	
+	public StaticExchange() {
+		gain = new int[MAX_EXCHANGE];
+	}
+	
+	private static int valueOf(int ability) {
+		return PieceSquareTables.materialOf(ability);
+	}
+	
+	/**
+	 * 
+	 * @return the square of the cheapest piece of the color among the
+	 *  attackers or BitBoard.NO_SQUARE
+	 */
+	private static int cheapestOf(BitBoard position, long attackers, int color) {
+		int square = BitBoard.NO_SQUARE;
+		
+		for(int ability = BitBoard.PAWN; ability <= BitBoard.KING && square == BitBoard.NO_SQUARE; ability++) {
+			long found = attackers & position.getPieces(BitBoard.pieceOf(color, ability));
+			
+			if(found != 0) {
+				square = Long.numberOfTrailingZeros(found);
+			}
+		}
+		
+		return square;
+	}
+	
+	/**
+	 * 
+	 * @param position the position the move is made from
+	 * @param move a pseudo legal move of the player whose turn it is
+	 * @return the material the move wins in centipawns, negative when it
+	 *  loses material
+	 */
+	public int evaluate(BitBoard position, int move) {
+		int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+		int promotion = PackedMove.getPromotion(move), color = position.getSideToMove();
+		int onSquare = promotion != 0 ? valueOf(promotion) : valueOf(BitBoard.abilityOf(position.getPieceAt(from)));
+		long occupied = position.getOccupied() ^ (1L << from);
+		int depth = 0;
+		
+		if(PackedMove.isEnPassant(move)) {
+			gain[0] = valueOf(BitBoard.PAWN);
+			occupied ^= 1L << (color == BitBoard.UPPER ? to - 8 : to + 8);
+		}
+		else if(position.getPieceAt(to) != BitBoard.EMPTY) {
+			gain[0] = valueOf(BitBoard.abilityOf(position.getPieceAt(to)));
+		}
+		
+		if(promotion != 0) {
+			gain[0] += valueOf(promotion) - valueOf(BitBoard.PAWN);
+		}
+		
+		for(int side = color ^ 1; depth < MAX_EXCHANGE - 1; side ^= 1) {
+			long attackers = position.attackersOf(to, occupied) & occupied;
+			int next = cheapestOf(position, attackers, side);
+			
+			if(next == BitBoard.NO_SQUARE) {
+				break;
+			}
+			
+			int ability = BitBoard.abilityOf(position.getPieceAt(next));
+			
+			//A King may only take when nothing can take it back
+			if(ability == BitBoard.KING &&
+					(attackers & position.getOccupancy(side ^ 1)) != 0) {
+				break;
+			}
+			
+			depth++;
+			gain[depth] = onSquare - gain[depth - 1];
+			onSquare = valueOf(ability);
+			occupied ^= 1L << next;
+			
+			if(Math.max(-gain[depth - 1], gain[depth]) < 0) {//Neither side would go on
+				break;
+			}
+		}
+		
+		while(depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+			depth--;
+		}
+		
+		return gain[0];
+	}
+}
@@ -0,0 +1,210 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import com.chess.board.PackedMove;
+
+/**
+ * TranspositionTable remembers what the search found for positions it has
+ * already searched.  Entries are two longs, the key XOR the data and the
+ * data, so threads can share the table without locks.  An entry torn by
+ * two threads writing at once does not verify against its key and is
+ * treated as missing. <br>
+ * Data bits 0-15 hold the move, 16-31 the score, 32-39 the depth, 40-41
+ * the bound and 42-47 the age of the search that stored it.  Each key
+ * maps to a bucket of two entries
+ * @author bradley
+ *
+ */
+public class TranspositionTable {
+	public static final int UPPER_BOUND = 1;
+	public static final int LOWER_BOUND = 2;
+	public static final int EXACT = 3;
+	
+	private static final int BUCKET_LONGS = 4;//Two entries of two longs
+	private static final int AGES = 64;
+	
+	private long[] table;
+	private int mask;
+	private int age;
+	
+	/**
+	 * 
+	 * @param megabytes the memory the table may use, it is rounded down to a
+	 *  power of two
+	 * @throws IllegalArgumentException
+	 */
+	public TranspositionTable(int megabytes) throws IllegalArgumentException {
+		if(megabytes < 1 || megabytes > 8192) {
+			throw new IllegalArgumentException("megabytes is out of range");
+		}
+		
+		long buckets = Long.highestOneBit(megabytes * 1024L * 1024L / (BUCKET_LONGS * 8));
+		
+		buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_LONGS));
+		table = new long[(int)buckets * BUCKET_LONGS];
+		mask = (int)buckets - 1;
+		age = 0;
+	}
+	
+	private static long pack(int move, int score, int depth, int bound, int age) {
+		return (move & 0xFFFFL) | (score & 0xFFFFL) << 16 | (long)depth << 32 |
+				(long)bound << 40 | (long)age << 42;
+	}
+	
+	private static int ageOf(long data) {
+		return (int)(data >>> 42) & (AGES - 1);
+	}
+	
+	private int indexOf(long key) {
+		return ((int)key & mask) * BUCKET_LONGS;
+	}
+	
+	/**
+	 * Mates are stored as the distance from the position, not from the root
+	 */
+	private static int scoreToTable(int score, int ply) {
+		if(score >= Search.MATE - Search.MAX_DEPTH) {
+			score += ply;
+		}
+		else if(score <= -Search.MATE + Search.MAX_DEPTH) {
+			score -= ply;
+		}
+		
+		return score;
+	}
+	
+	/**
+	 * Empty entries are replaced first, then entries stored by older searches 
+	 * or for shallower depths
+	 */
+	private int replaceValueOf(long data) {
+		return data == 0L ? Integer.MIN_VALUE : depthOf(data) - 8 * ((age - ageOf(data)) & (AGES - 1));
+	}
+	
+	/**
+	 * Starts a new search, entries of earlier searches are replaced first
+	 */
+	public void newSearch() {
+		age = (age + 1) & (AGES - 1);
+	}
+	
+	/**
+	 * Empties the table
+	 */
+	public void clear() {
+		Arrays.fill(table, 0L);
+		age = 0;
+	}
+	
+	/**
+	 * 
+	 * @return the number of entries the table holds
+	 */
+	public int size() {
+		return table.length / 2;
+	}
+	
+	/**
+	 * 
+	 * @param key the position key
+	 * @return the data stored for the key, 0 when there is none
+	 */
+	public long probe(long key) {
+		int index = indexOf(key);
+		long data = 0L;
+		
+		for(int i = index; i < index + BUCKET_LONGS && data == 0L; i += 2) {
+			long stored = table[i + 1];
+			
+			if(stored != 0L && (table[i] ^ stored) == key) {
+				data = stored;
+			}
+		}
+		
+		return data;
+	}
+	
+	/**
+	 * 
+	 * @param key the position key
+	 * @param move the best move found (see PackedMove), PackedMove.NONE keeps
+	 *  the move already stored for the key
+	 * @param score the score from the search
+	 * @param depth the depth searched
+	 * @param bound UPPER_BOUND, LOWER_BOUND or EXACT
+	 * @param ply the distance from the root, used to store mates
+	 */
+	public void store(long key, int move, int score, int depth, int bound, int ply) {
+		int index = indexOf(key), slot = index, lowest = Integer.MAX_VALUE;
+		
+		for(int i = index; i < index + BUCKET_LONGS; i += 2) {
+			long stored = table[i + 1];
+			
+			if(stored != 0L && (table[i] ^ stored) == key) {//Same position, keep its move if there's no new one
+				slot = i;
+				
+				if(move == PackedMove.NONE) {
+					move = moveOf(stored);
+				}
+				
+				break;
+			}
+			else if(replaceValueOf(stored) < lowest) {
+				lowest = replaceValueOf(stored);
+				slot = i;
+			}
+		}
+		
+		long data = pack(PackedMove.withoutFlags(move), scoreToTable(score, ply),
+				Math.max(depth, 0), bound, age);
+		
+		table[slot] = key ^ data;
+		table[slot + 1] = data;
+	}
+	
+	/**
+	 * 
+	 * @param data the data returned by probe
+	 * @return the move stored, without its flags
+	 */
+	public static int moveOf(long data) {
+		return (int)data & 0xFFFF;
+	}
+	
+	/**
+	 * 
+	 * @param data the data returned by probe
+	 * @param ply the distance from the root
+	 * @return the score stored, mates are counted from the root
+	 */
+	public static int scoreOf(long data, int ply) {
+		int score = (short)(data >>> 16);
+		
+		if(score >= Search.MATE - Search.MAX_DEPTH) {
+			score -= ply;
+		}
+		else if(score <= -Search.MATE + Search.MAX_DEPTH) {
+			score += ply;
+		}
+		
+		return score;
+	}
+	
+	/**
+	 * 
+	 * @param data the data returned by probe
+	 * @return the depth the score was searched to
+	 */
+	public static int depthOf(long data) {
+		return (int)(data >>> 32) & 0xFF;
+	}
+	
+	/**
+	 * 
+	 * @param data the data returned by probe
+	 * @return UPPER_BOUND, LOWER_BOUND or EXACT
+	 */
+	public static int boundOf(long data) {
+		return (int)(data >>> 40) & 3;
+	}
+}
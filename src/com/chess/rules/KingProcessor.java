@@ -19,8 +19,6 @@ import static com.chess.rules.RuleConstants.*;
  * 
  */
 public class KingProcessor extends RuleProcessor {
-	private List<Rule> rules;
-	
 	private List<Rule> createRules() {
 		List<Rule> theRules = new ArrayList<>();
 		
@@ -41,22 +39,9 @@ public class KingProcessor extends RuleProcessor {
 		return theRules;
 	}
 	
-	private Rule matchRule(int id, Direction direction, int numberOf) {
-		Rule matched = null;
-		
-		for (Rule rule:rules) {
-			if(id == rule.getId() && direction == rule.getDirection() &&
-				numberOf == rule.getNumberOf()){
-					matched = rule;
-					break;
-				}
-		}
-		
-		return matched;
-	}
-	
 	@Override
-	protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf) {
+	protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf) {
 		Rule matched = null;
 		
 		if(direction!=null) {
@@ -78,27 +63,26 @@ public class KingProcessor extends RuleProcessor {
 				matched = matchRule(CASTLED, direction, numberOf);
 				
 				if(matched != null) {
-					boolean isValid = playerPiece.getHistory().size() == 0;
-															
+					Location fromLocation = fromCell.getLocation();
+					Location toLocation = toCell.getLocation();
+					boolean kingSide = toLocation.getXIndex() > fromLocation.getXIndex();
+					boolean isValid = state.canCastle(PositionState.castlingRightOf(playerColor, kingSide));
+					
 					if(isValid) {
-						Location fromLocation = fromCell.getLocation();
-						Location toLocation = toCell.getLocation();
 						Piece rook = null;
-						int y = fromLocation.getYIndex() - 1, x1, x2;
+						int y = fromLocation.getYIndex() - 1, rookSquare;
 						
-						if(toLocation.getXIndex() < fromLocation.getXIndex()) {
-							rook = cells.get(y*8).getPiece();
-							x1 = fromLocation.getXIndex() - 2;
-							x2 = 1;
+						if(!kingSide) {
+							rookSquare = y*8;
 						}
 						else {
-							rook = cells.get(y*8 + 7).getPiece();
-							x1 = fromLocation.getXIndex();
-							x2 = 6;
+							rookSquare = y*8 + 7;
 						}
 						
-						isValid = rook != null && rook.getHistory().size() == 0 &&
-								!this.isHorizontalBlocked(cells, x1, x2, y);
+						rook = cells.get(rookSquare).getPiece();
+						
+						isValid = rook != null && 
+								!this.isStraightBlocked(occupied, squareOf(fromLocation), rookSquare);
 					}
 					
 					if(!isValid) {
@@ -112,7 +96,7 @@ public class KingProcessor extends RuleProcessor {
 	}
 	
 	public KingProcessor() {
-		rules = this.createRules();
+		compileRules(this.createRules());
 	}
 	
 }
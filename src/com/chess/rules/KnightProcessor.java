@@ -15,8 +15,6 @@ import static com.chess.rules.RuleConstants.*;
  * 
  */
 public class KnightProcessor extends RuleProcessor {
-	private List<Rule> rules;
-	
 	private List<Rule> createRules() {
 		List<Rule> theRules = new ArrayList<>();
 		
@@ -33,22 +31,9 @@ public class KnightProcessor extends RuleProcessor {
 		return theRules;
 	}
 	
-	private Rule matchRule(int id, Direction direction, int numberOf) {
-		Rule matched = null;
-		
-		for (Rule rule:rules) {
-			if(id == rule.getId() && direction == rule.getDirection() &&
-				numberOf == rule.getNumberOf()){
-					matched = rule;
-					break;
-				}
-		}
-		
-		return matched;
-	}
-	
 	@Override
-	protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf) {
+	protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf) {
 		Rule matched = null;
 		
 		if(direction!=null) {
@@ -72,7 +57,7 @@ public class KnightProcessor extends RuleProcessor {
 	}
 	
 	public KnightProcessor() {
-		rules = this.createRules();
+		compileRules(this.createRules());
 	}
 	
 }
@@ -16,8 +16,6 @@ import static com.chess.rules.RuleConstants.*;
  * 
  */
 public class PawnProcessor extends RuleProcessor {
-	private List<Rule> rules;
-	
 	private List<Rule> createRules() {
 		List<Rule> theRules = new ArrayList<>();
 		
@@ -36,22 +34,9 @@ public class PawnProcessor extends RuleProcessor {
 		return theRules;
 	}
 	
-	private Rule matchRule(int id, Direction direction, int numberOf) {
-		Rule matched = null;
-		
-		for (Rule rule:rules) {
-			if(id == rule.getId() && direction == rule.getDirection() &&
-				numberOf == rule.getNumberOf()){
-					matched = rule;
-					break;
-				}
-		}
-		
-		return matched;
-	}
-	
 	@Override
-	protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf) {
+	protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf) {
 		Rule matched = null;
 		
 		if(direction!=null) {
@@ -73,15 +58,8 @@ public class PawnProcessor extends RuleProcessor {
 				
 				//Check when Diagonal Move
 				if(direction == Direction.DiagonalUpLeft || direction == Direction.DiagonalUpRight) {
-					Move lastMove = this.getPreviousMove();
-
-					if(lastMove != null) { //Check for EN_PASSANT
-						if(playerColor == PlayerColor.Lower && toLocation.getYIndex() == 3 ||
-						   playerColor == PlayerColor.Upper && toLocation.getYIndex() == 6) {
-							if(toLocation.getXIndex() == lastMove.getToCell().getLocation().getXIndex()) {
-								matched = matchRule(EN_PASSANT, null, -1);
-							}
-						}
+					if(squareOf(toLocation) == state.getEnPassantSquare()) { //Check for EN_PASSANT
+						matched = matchRule(EN_PASSANT, null, -1);
 					}
 					else if(enemy == null || enemy.getPlayer().getColor() == playerColor) {
 						matched = null; //Can not take own pieces
@@ -94,22 +72,9 @@ public class PawnProcessor extends RuleProcessor {
 					else if(enemy != null){
 						matched = null; //Can not move 2 if blocked
 					}
-					else {
-						Location fromLocation = fromCell.getLocation();
-						int x = fromLocation.getXIndex() - 1, y1, y2;
-						
-						if(toLocation.getYIndex() < fromLocation.getYIndex()) {
-							y1 = fromLocation.getYIndex() - 2;
-							y2 = toLocation.getYIndex();
-						}
-						else {
-							y1 = fromLocation.getYIndex();
-							y2 = toLocation.getYIndex() - 2;
-						}
-						
-						if(this.isVerticalBlocked(cells, y1, y2, x)) {
-							matched = null;
-						}
+					else if(this.isStraightBlocked(occupied, squareOf(fromCell.getLocation()), 
+							squareOf(toLocation))) {
+						matched = null; //Can not move 2 if blocked
 					}
 				}
 				else {
@@ -124,7 +89,7 @@ public class PawnProcessor extends RuleProcessor {
 	}
 	
 	public PawnProcessor() {
-		rules = this.createRules();
+		compileRules(this.createRules());
 	}
 	
 }
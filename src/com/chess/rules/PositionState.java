@@ -0,0 +1,130 @@
+package com.chess.rules;
+
+import java.util.List;
+import com.chess.board.Cell;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.PlayerColor;
+
+/**
+ * PositionState holds the part of a position the cells can not show, the
+ * castling rights and the en passant square.  Rule processors read it
+ * instead of remembering moves, so one set of processors can serve every
+ * board.  <br>
+ * Every state is created when the class is loaded, of() never allocates
+ * @author bradley
+ *
+ */
+public final class PositionState {
+	public static final int NO_SQUARE = -1;
+	
+	public static final int UPPER_KING_SIDE = 1;
+	public static final int UPPER_QUEEN_SIDE = 2;
+	public static final int LOWER_KING_SIDE = 4;
+	public static final int LOWER_QUEEN_SIDE = 8;
+	
+	private static final PositionState[] STATES = new PositionState[16 * 65];
+	
+	static {
+		for(int rights = 0; rights < 16; rights++) {
+			for(int square = NO_SQUARE; square < 64; square++) {
+				STATES[(square + 1) * 16 + rights] = new PositionState(rights, square);
+			}
+		}
+	}
+	
+	/**
+	 * No castling and no en passant
+	 */
+	public static final PositionState NONE = of(0, NO_SQUARE);
+	
+	private final int castlingRights;
+	private final int enPassantSquare;
+	
+	private PositionState(int castlingRights, int enPassantSquare) {
+		this.castlingRights = castlingRights;
+		this.enPassantSquare = enPassantSquare;
+	}
+	
+	/**
+	 * 
+	 * @param castlingRights the castling rights left, any of the *_SIDE bits
+	 * @param enPassantSquare the square a pawn can be taken on en passant or NO_SQUARE
+	 * @return the shared state
+	 * @throws IllegalArgumentException
+	 */
+	public static PositionState of(int castlingRights, int enPassantSquare)
+			throws IllegalArgumentException {
+		if(castlingRights < 0 || castlingRights > 15) {
+			throw new IllegalArgumentException("castlingRights is out of range");
+		}
+		
+		if(enPassantSquare < NO_SQUARE || enPassantSquare > 63) {
+			throw new IllegalArgumentException("enPassantSquare is out of range");
+		}
+		
+		return STATES[(enPassantSquare + 1) * 16 + castlingRights];
+	}
+	
+	/**
+	 * Works out the castling rights from the history of the kings and rooks,
+	 * used when only the cells are known.  There is never an en passant square
+	 * @param cells the 64 ordered cells of the board
+	 * @return the state of the cells
+	 */
+	public static PositionState of(List<Cell> cells) {
+		int rights = 0;
+		
+		if(cells.size() == 64) {
+			if(isUnmoved(cells, 4, PlayerColor.Upper, true)) {
+				rights |= isUnmoved(cells, 7, PlayerColor.Upper, false) ? UPPER_KING_SIDE : 0;
+				rights |= isUnmoved(cells, 0, PlayerColor.Upper, false) ? UPPER_QUEEN_SIDE : 0;
+			}
+			
+			if(isUnmoved(cells, 60, PlayerColor.Lower, true)) {
+				rights |= isUnmoved(cells, 63, PlayerColor.Lower, false) ? LOWER_KING_SIDE : 0;
+				rights |= isUnmoved(cells, 56, PlayerColor.Lower, false) ? LOWER_QUEEN_SIDE : 0;
+			}
+		}
+		
+		return of(rights, NO_SQUARE);
+	}
+	
+	private static boolean isUnmoved(List<Cell> cells, int square, PlayerColor color, boolean isKing) {
+		Piece piece = cells.get(square).getPiece();
+		
+		return piece != null && piece.getPlayer().getColor() == color &&
+				piece.getHistory().size() == 0 && (!isKing || piece.getAbility() == Ability.King);
+	}
+	
+	/**
+	 * 
+	 * @param color the color of the player castling
+	 * @param kingSide true for the side of the (8, y) rook
+	 * @return the castling right of the side
+	 */
+	public static int castlingRightOf(PlayerColor color, boolean kingSide) {
+		int right;
+		
+		if(color == PlayerColor.Upper) {
+			right = kingSide ? UPPER_KING_SIDE : UPPER_QUEEN_SIDE;
+		}
+		else {
+			right = kingSide ? LOWER_KING_SIDE : LOWER_QUEEN_SIDE;
+		}
+		
+		return right;
+	}
+	
+	public int getCastlingRights() {
+		return castlingRights;
+	}
+	
+	public boolean canCastle(int right) {
+		return (castlingRights & right) != 0;
+	}
+	
+	public int getEnPassantSquare() {
+		return enPassantSquare;
+	}
+}
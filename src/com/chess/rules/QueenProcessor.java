@@ -3,7 +3,6 @@ package com.chess.rules;
 import java.util.ArrayList;
 import java.util.List;
 import com.chess.board.Cell;
-import com.chess.board.Location;
 import com.chess.board.Move;
 import com.chess.pieces.Piece;
 import com.chess.pieces.PlayerColor;
@@ -17,8 +16,6 @@ import static com.chess.rules.RuleConstants.*;
  * 
  */
 public class QueenProcessor extends RuleProcessor {
-	private List<Rule> rules;
-	
 	private List<Rule> createRules() {
 		List<Rule> theRules = new ArrayList<>();
 		
@@ -35,22 +32,9 @@ public class QueenProcessor extends RuleProcessor {
 		return theRules;
 	}
 	
-	private Rule matchRule(int id, Direction direction, int numberOf) {
-		Rule matched = null;
-		
-		for (Rule rule:rules) {
-			if(id == rule.getId() && direction == rule.getDirection() &&
-				numberOf == rule.getNumberOf()){
-					matched = rule;
-					break;
-				}
-		}
-		
-		return matched;
-	}
-	
 	@Override
-	protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf) {
+	protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf) {
 		Rule matched = null;
 		
 		if(direction!=null) {
@@ -62,9 +46,7 @@ public class QueenProcessor extends RuleProcessor {
 				PlayerColor playerColor = playerPiece.getPlayer().getColor();
 				Cell toCell = theMove.getToCell();
 				Piece enemy = toCell.getPiece();
-				Location toLocation = toCell.getLocation();
-				Location fromLocation = fromCell.getLocation();
-				int x1, x2, y1, y2;
+				int from = squareOf(fromCell.getLocation()), to = squareOf(toCell.getLocation());
 												
 				if(enemy!=null && enemy.getPlayer().getColor() == playerColor) {
 					matched = null;//can not take piece of same of same color
@@ -74,61 +56,14 @@ public class QueenProcessor extends RuleProcessor {
 						direction == Direction.DiagonalDownRight ||
 						direction == Direction.DiagonalUpLeft ||
 						direction == Direction.DiagonalUpRight)) {//Diagonal = DeltaX + DeltaY
-					
-					
-					if(toLocation.getYIndex() < fromLocation.getYIndex()) {
-						y1 = fromLocation.getYIndex() - 2;
-						y2 = toLocation.getYIndex();
-					}
-					else {
-						y1 = fromLocation.getYIndex();
-						y2 = toLocation.getYIndex() - 2;
-					}
-					
-					if(toLocation.getXIndex() < fromLocation.getXIndex()) {
-						x1 = fromLocation.getXIndex() - 2;
-						x2 = toLocation.getXIndex();
-					}
-					else {
-						x1 = fromLocation.getXIndex();
-						x2 = toLocation.getXIndex() - 2;
-					}
-					
-					if(this.isDiagonalBlocked(cells, y1, y2, x1, x2)) {
+					if(this.isDiagonalBlocked(occupied, from, to)) {
 						matched = null;
 					}
 				}
 				else if(numberOf > 1 && (direction == Direction.Left || 
-						direction == Direction.Right)) {
-					y1 = fromLocation.getYIndex() - 1;
-					
-					if(toLocation.getXIndex() < fromLocation.getXIndex()) {
-						x1 = fromLocation.getXIndex() - 2;
-						x2 = toLocation.getXIndex();
-					}
-					else {
-						x1 = fromLocation.getXIndex();
-						x2 = toLocation.getXIndex() - 2;
-					}
-					
-					if(this.isHorizontalBlocked(cells, x1, x2, y1)) {
-						matched = null;
-					}
-				}
-				else if(numberOf > 1 && (direction == Direction.Forward || 
+						direction == Direction.Right || direction == Direction.Forward || 
 						direction == Direction.Back)) {
-					x1 = fromLocation.getXIndex() - 1;
-					
-					if(toLocation.getYIndex() < fromLocation.getYIndex()) {
-						y1 = fromLocation.getYIndex() - 2;
-						y2 = toLocation.getYIndex();
-					}
-					else {
-						y1 = fromLocation.getYIndex();
-						y2 = toLocation.getYIndex() - 2;
-					}
-					
-					if(this.isVerticalBlocked(cells, y1, y2, x1)) {
+					if(this.isStraightBlocked(occupied, from, to)) {
 						matched = null;
 					}
 				}
@@ -139,7 +74,7 @@ public class QueenProcessor extends RuleProcessor {
 	}
 	
 	public QueenProcessor() {
-		rules = this.createRules();
+		compileRules(this.createRules());
 	}
 	
 }
@@ -3,7 +3,6 @@ package com.chess.rules;
 import java.util.ArrayList;
 import java.util.List;
 import com.chess.board.Cell;
-import com.chess.board.Location;
 import com.chess.board.Move;
 import com.chess.pieces.Piece;
 import com.chess.pieces.PlayerColor;
@@ -17,8 +16,6 @@ import static com.chess.rules.RuleConstants.*;
  * 
  */
 public class RookProcessor extends RuleProcessor {
-	private List<Rule> rules;
-	
 	private List<Rule> createRules() {
 		List<Rule> theRules = new ArrayList<>();
 		
@@ -31,22 +28,9 @@ public class RookProcessor extends RuleProcessor {
 		return theRules;
 	}
 	
-	private Rule matchRule(int id, Direction direction, int numberOf) {
-		Rule matched = null;
-		
-		for (Rule rule:rules) {
-			if(id == rule.getId() && direction == rule.getDirection() &&
-				numberOf == rule.getNumberOf()){
-					matched = rule;
-					break;
-				}
-		}
-		
-		return matched;
-	}
-	
 	@Override
-	protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf) {
+	protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf) {
 		Rule matched = null;
 		
 		if(direction!=null) {
@@ -58,46 +42,15 @@ public class RookProcessor extends RuleProcessor {
 				PlayerColor playerColor = playerPiece.getPlayer().getColor();
 				Cell toCell = theMove.getToCell();
 				Piece enemy = toCell.getPiece();
-				Location toLocation = toCell.getLocation();
-				Location fromLocation = fromCell.getLocation();
-				int a1, b1, c;
 								
 				if(enemy!=null && enemy.getPlayer().getColor() == playerColor) {
 					matched = null;//can not take piece of same of same color
 				}
 				
 				if(numberOf > 1) {
-					if(direction == Direction.Left || direction == Direction.Right) {
-						c = fromLocation.getYIndex() - 1;
-					
-						if(toLocation.getXIndex() < fromLocation.getXIndex()) {
-							a1 = fromLocation.getXIndex() - 2;
-							b1 = toLocation.getXIndex();
-						}
-						else {
-							a1 = fromLocation.getXIndex();
-							b1 = toLocation.getXIndex() -2;
-						}
-						
-						if(this.isHorizontalBlocked(cells, a1, b1, c)) {
-							matched = null;
-						}
-					}
-					else {
-						c = fromLocation.getXIndex() - 1;
-						
-						if(toLocation.getYIndex() < fromLocation.getYIndex()) {
-							a1 = fromLocation.getYIndex() - 2;
-							b1 = toLocation.getYIndex();
-						}
-						else {
-							a1 = fromLocation.getYIndex();
-							b1 = toLocation.getYIndex() -2;
-						}
-						
-						if(this.isVerticalBlocked(cells, a1, b1, c)) {
-							matched = null;
-						}
+					if(this.isStraightBlocked(occupied, squareOf(fromCell.getLocation()), 
+							squareOf(toCell.getLocation()))) {
+						matched = null;
 					}
 				}
 			}
@@ -107,7 +60,7 @@ public class RookProcessor extends RuleProcessor {
 	}
 	
 	public RookProcessor() {
-		rules = this.createRules();
+		compileRules(this.createRules());
 	}
 	
 }
@@ -1,6 +1,7 @@
 package com.chess.rules;
 
 import java.util.List;
+import com.chess.board.Attacks;
 import com.chess.board.Cell;
 import com.chess.board.Location;
 import com.chess.board.Move;
@@ -9,130 +10,86 @@ import com.chess.pieces.PlayerColor;
 import static com.chess.rules.RuleConstants.*;
 
 /**
- * The base class for all Rule Processors
+ * The base class for all Rule Processors <br>
+ * Processors keep no state between moves, anything a rule needs beyond the 
+ * cells comes in the PositionState
  * @author bradley
  *
  */
 public abstract class RuleProcessor {
-	private Move previousMove;
+	private static final int DIRECTIONS = Direction.values().length + 1;//The last is for null
+	private static final int NUMBERS_OF = 16;//-1 through 14, the longest move
+	private static final int DELTAS = 15;//-7 through 7
+	private static final Direction[][] DIRECTION_TABLE = new Direction[2][DELTAS * DELTAS];
+	
+	static {
+		for(PlayerColor color:PlayerColor.values()) {
+			for(int deltaX = -7; deltaX <= 7; deltaX++) {
+				for(int deltaY = -7; deltaY <= 7; deltaY++) {
+					DIRECTION_TABLE[color.ordinal()][deltaIndexOf(deltaX, deltaY)] = 
+							computeDirection(color, deltaX, deltaY);
+				}
+			}
+		}
+	}
+	
+	private Rule[] ruleTable;
 	
 	/**
 	 * All inheritors MUST implement this function
 	 * @param cells the cells of the board
+	 * @param occupied a bit per occupied cell, bit 0 is (1, 1) and bit 63 is (8, 8)
+	 * @param state the castling rights and en passant square of the position
 	 * @param theMove the move being matched against 
 	 * @param direction the direction relative to the player (could be null)
 	 * @param numberOf the total number of blocks passed through (remember 
 	 *  always |deltaX| + |deltaY|)
 	 * @return the matched rule, if any
 	 */
-	abstract protected Rule matchRule(List<Cell> cells, Move theMove, Direction direction, int numberOf);
+	abstract protected Rule matchRule(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove, Direction direction, int numberOf);
 	
 	/**
-	 * Detects if a pieces is blocking the path horizontally
-	 * @param cells the cells of the board
-	 * @param x1 (zero-based)
-	 * @param x2 (zero-based)
-	 * @param y  the row value (zero-based)
-	 * @return
+	 * 
+	 * @param location the location on the board
+	 * @return the zero-based square of the location, (1, 1) is 0 and (8, 8) is 63
 	 */
-	protected boolean isHorizontalBlocked(List<Cell> cells, int x1, int x2, int y) {
-		boolean isBlocked = false;
-		
-		int a,b;
-		
-		if(x2 < x1) {
-			b = x1;
-			a = x2;
-		}
-		else {
-			a = x1;
-			b = x2;
-		}
-		
-		for(int i=a; i <= b; i++) {
-			if(cells.get(i + 8*y).getPiece()!=null) {
-				isBlocked = true;
-				break;
-			}
-		}
-		
-		return isBlocked;
+	protected static int squareOf(Location location) {
+		return (location.getYIndex() - 1) * 8 + (location.getXIndex() - 1);
 	}
 	
 	/**
-	 * Detects if a pieces is blocking the path vertically
-	 * @param cells the cells of the board
-	 * @param y1 (zero-based)
-	 * @param y2 (zero-based)
-	 * @param x  the column value (zero-based)
-	 * @return
+	 * Detects if a piece is blocking the path horizontally or vertically
+	 * @param occupied a bit per occupied cell
+	 * @param from the zero-based square moved from
+	 * @param to the zero-based square moved to
+	 * @return if any cell between from and to is occupied
 	 */
-	protected boolean isVerticalBlocked(List<Cell> cells, int y1, int y2, int x) {
-		boolean isBlocked = false;
-		int a,b;
-		
-		if(y2 < y1) {
-			b = y1;
-			a = y2;
-		}
-		else {
-			a = y1;
-			b = y2;
-		}
-		
-		for(int i=a; i <= b; i++) {
-			if(cells.get(i*8 + x).getPiece()!=null) {
-				isBlocked = true;
-				break;
-			}
-		}
-		
-		return isBlocked;
+	protected boolean isStraightBlocked(long occupied, int from, int to) {
+		return (Attacks.rook(from, occupied) & (1L << to)) == 0;
 	}
 	
 	/**
-	 * Detects if a pieces is blocking the path vertically
-	 * @param cells the cells of the board
-	 * @param y1 (zero-based)
-	 * @param y2 (zero-based)
-	 * @param x1 (zero-based)
-	 * @param x2 (zero-based) 
-	 * @return
+	 * Detects if a piece is blocking the path diagonally
+	 * @param occupied a bit per occupied cell
+	 * @param from the zero-based square moved from
+	 * @param to the zero-based square moved to
+	 * @return if any cell between from and to is occupied
 	 */
-	protected boolean isDiagonalBlocked(List<Cell> cells, int y1, int y2, int x1, int x2) {
-		boolean isBlocked = false;
-		int a,b,x,increment;
-		
-		if(y2 < y1) {
-			x = x2;
-			a = y2;
-			b = y1;
-			increment = -1;
-		}
-		else {
-			x = x1;
-			a = y1;
-			b = y2;
-			increment = 1;
-		}
-		
-		if(x2 < x1) {
-			increment *= -1;
-		}
-		
-		for(int i=a; i <= b; i++, x+=increment) {
-			if(cells.get(i*8 + x).getPiece()!=null) {
-				isBlocked = true;
-				break;
-			}
-		}
-		
-		return isBlocked;
+	protected boolean isDiagonalBlocked(long occupied, int from, int to) {
+		return (Attacks.bishop(from, occupied) & (1L << to)) == 0;
 	}
 	
-	protected Direction determineDirection(PlayerColor myColor, int deltaX, int deltaY) {
+	private static int deltaIndexOf(int deltaX, int deltaY) {
+		return (deltaY + 7) * DELTAS + deltaX + 7;
+	}
+	
+	/**
+	 * Only used to fill the direction table
+	 */
+	private static Direction computeDirection(PlayerColor myColor, int deltaX, int deltaY) {
 		Direction direction = null;
-				
+		
 		if(deltaX != 0 || deltaY !=0) {
 			if(myColor == PlayerColor.Lower) {
 				//Left is positive and Forward is positive
@@ -202,15 +159,95 @@ public abstract class RuleProcessor {
 		return direction;
 	}
 	
-	protected Move getPreviousMove() {
-		return previousMove;
+	/**
+	 * 
+	 * @param myColor the color of the player moving
+	 * @param deltaX the change of the x index
+	 * @param deltaY the change of the y index
+	 * @return the direction relative to the player, null if the move has none
+	 */
+	protected Direction determineDirection(PlayerColor myColor, int deltaX, int deltaY) {
+		Direction direction = null;
+		
+		if(deltaX >= -7 && deltaX <= 7 && deltaY >= -7 && deltaY <= 7) {
+			direction = DIRECTION_TABLE[myColor.ordinal()][deltaIndexOf(deltaX, deltaY)];
+		}
+		
+		return direction;
+	}
+	
+	private static int indexOf(int id, Direction direction, int numberOf) {
+		int directionIndex = direction == null ? DIRECTIONS - 1 : direction.ordinal();
+		
+		return (id * DIRECTIONS + directionIndex) * NUMBERS_OF + numberOf + 1;
+	}
+	
+	/**
+	 * Builds the lookup table used by matchRule, inheritors call it once 
+	 * with their rules
+	 * @param rules the rules of the processor
+	 */
+	protected void compileRules(List<Rule> rules) {
+		int maxId = 0;
+		
+		for(Rule rule:rules) {
+			maxId = Math.max(maxId, rule.getId());
+		}
+		
+		ruleTable = new Rule[(maxId + 1) * DIRECTIONS * NUMBERS_OF];
+		
+		for(Rule rule:rules) {
+			int index = indexOf(rule.getId(), rule.getDirection(), rule.getNumberOf());
+			
+			if(ruleTable[index] == null) {//The first rule wins, like a scan would
+				ruleTable[index] = rule;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param id the id of the rule
+	 * @param direction the direction of the rule (could be null)
+	 * @param numberOf the number of blocks of the rule
+	 * @return the compiled rule matching all three, if any
+	 */
+	protected Rule matchRule(int id, Direction direction, int numberOf) {
+		Rule matched = null;
+		
+		if(id >= 0 && numberOf >= -1 && numberOf < NUMBERS_OF - 1) {
+			int index = indexOf(id, direction, numberOf);
+			
+			if(index < ruleTable.length) {
+				matched = ruleTable[index];
+			}
+		}
+		
+		return matched;
 	}
 	
 	/**
 	 * Default constructor for all rule processors
 	 */
 	public RuleProcessor() {
-		previousMove = null;
+		ruleTable = new Rule[0];
+	}
+	
+	/**
+	 * 
+	 * @param cells the cells of the board
+	 * @return a bit per occupied cell, bit 0 is (1, 1) and bit 63 is (8, 8)
+	 */
+	public static long occupancyOf(List<Cell> cells) {
+		long occupied = 0L;
+		
+		for(Cell cell:cells) {
+			if(cell.getPiece() != null) {
+				occupied |= 1L << squareOf(cell.getLocation());
+			}
+		}
+		
+		return occupied;
 	}
 	
 	/**
@@ -225,6 +262,47 @@ public abstract class RuleProcessor {
 			throw new IllegalArgumentException("cells is null");
 		}
 		
+		return GetMoveResult(cells, occupancyOf(cells), PositionState.of(cells), theMove);
+	}
+	
+	/**
+	 * Simulates a move but does not alter cells
+	 * @param cells an ordered list of cells
+	 * @param occupied a bit per occupied cell, kept by the caller so it does
+	 *  not have to be rebuilt from the cells
+	 * @param theMove the move being simulated
+	 * @return the result of the simulation
+	 * @throws IllegalArgumentException
+	 */
+	public RuleResult GetMoveResult(List<Cell> cells, long occupied, Move theMove) 
+			throws IllegalArgumentException {
+		if(cells == null) {
+			throw new IllegalArgumentException("cells is null");
+		}
+		
+		return GetMoveResult(cells, occupied, PositionState.of(cells), theMove);
+	}
+	
+	/**
+	 * Simulates a move but does not alter cells
+	 * @param cells an ordered list of cells
+	 * @param occupied a bit per occupied cell, kept by the caller so it does
+	 *  not have to be rebuilt from the cells
+	 * @param state the castling rights and en passant square of the position
+	 * @param theMove the move being simulated
+	 * @return the result of the simulation
+	 * @throws IllegalArgumentException
+	 */
+	public RuleResult GetMoveResult(List<Cell> cells, long occupied, PositionState state, 
+			Move theMove) throws IllegalArgumentException {
+		if(cells == null) {
+			throw new IllegalArgumentException("cells is null");
+		}
+		
+		if(state == null) {
+			throw new IllegalArgumentException("state is null");
+		}
+		
 		if(theMove == null) {
 			throw new IllegalArgumentException("theMove is null");
 		}
@@ -239,15 +317,16 @@ public abstract class RuleProcessor {
 		
 		Direction direction = determineDirection(playerColor, deltaX, deltaY);
 		
-		Rule matched = matchRule(cells, theMove, direction, Math.abs(deltaX) + Math.abs(deltaY));
+		Rule matched = matchRule(cells, occupied, state, theMove, direction, 
+				Math.abs(deltaX) + Math.abs(deltaY));
 		
 		RuleResult result = null;//assume null unless there's a match
 		
 		if(matched!=null) {
 			Piece captured = theMove.getToCell().getPiece();
 			
-			if(matched.getId() == EN_PASSANT) {
-				captured = previousMove.getToCell().getPiece();
+			if(matched.getId() == EN_PASSANT) {//The pawn taken is beside the one moving
+				captured = cells.get(squareOf(fromLocation) + deltaX).getPiece();
 			}
 			
 			result = new RuleResult(matched, captured);
@@ -255,12 +334,4 @@ public abstract class RuleProcessor {
 		
 		return result;
 	}
-	
-	/**
-	 * Some rule(s) require knowledge of the previous move
-	 * @param theMove
-	 */
-	public void setPreviousMove(Move theMove) {
-		previousMove = theMove;
-	}
 }
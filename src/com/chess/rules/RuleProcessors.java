@@ -0,0 +1,35 @@
+package com.chess.rules;
+
+import com.chess.pieces.Ability;
+
+/**
+ * RuleProcessors holds the one set of rule processors shared by every board.
+ * Processors keep no state between moves, so they are safe to use from
+ * any number of boards and threads at once
+ * @author bradley
+ *
+ */
+public final class RuleProcessors {
+	private static final RuleProcessor[] PROCESSORS = new RuleProcessor[Ability.values().length];
+	
+	static {//Indexed by Ability ordinal
+		PROCESSORS[Ability.Pawn.ordinal()] = new PawnProcessor();
+		PROCESSORS[Ability.Knight.ordinal()] = new KnightProcessor();
+		PROCESSORS[Ability.Bishop.ordinal()] = new BishopProcessor();
+		PROCESSORS[Ability.Rook.ordinal()] = new RookProcessor();
+		PROCESSORS[Ability.Queen.ordinal()] = new QueenProcessor();
+		PROCESSORS[Ability.King.ordinal()] = new KingProcessor();
+	}
+	
+	private RuleProcessors() {
+	}
+	
+	/**
+	 * 
+	 * @param ability the ability of the piece moving
+	 * @return the shared processor of the ability
+	 */
+	public static RuleProcessor of(Ability ability) {
+		return PROCESSORS[ability.ordinal()];
+	}
+}
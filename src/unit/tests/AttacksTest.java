@@ -0,0 +1,76 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+import com.chess.board.Attacks;
+
+
+public class AttacksTest {
+	
+	private long slide(int square, long occupied, int dx, int dy) {
+		long result = 0L;
+		int x = square % 8 + dx, y = square / 8 + dy;
+		
+		while(x >= 0 && x < 8 && y >= 0 && y < 8) {
+			result |= 1L << (y * 8 + x);
+			
+			if((occupied & (1L << (y * 8 + x))) != 0) {
+				break;
+			}
+			
+			x += dx;
+			y += dy;
+		}
+		
+		return result;
+	}
+	
+	@Test
+	public void testKnightAttacks() {
+		assertEquals(2, Long.bitCount(Attacks.knight(0)));
+		assertEquals(8, Long.bitCount(Attacks.knight(27)));
+		assertEquals((1L << 10) | (1L << 17), Attacks.knight(0));
+	}
+	
+	@Test
+	public void testKingAttacks() {
+		assertEquals(3, Long.bitCount(Attacks.king(63)));
+		assertEquals(8, Long.bitCount(Attacks.king(36)));
+	}
+	
+	@Test
+	public void testPawnAttacks() {
+		assertEquals((1L << 17) | (1L << 19), Attacks.pawn(0, 10));
+		assertEquals((1L << 1) | (1L << 3), Attacks.pawn(1, 10));
+		assertEquals(1L << 49, Attacks.pawn(0, 40));
+	}
+	
+	@Test
+	public void testSlidingAttacksOnEmptyBoard() {
+		assertEquals(14, Long.bitCount(Attacks.rook(0, 0L)));
+		assertEquals(14, Long.bitCount(Attacks.rook(36, 0L)));
+		assertEquals(7, Long.bitCount(Attacks.bishop(0, 0L)));
+		assertEquals(13, Long.bitCount(Attacks.bishop(27, 0L)));
+		assertEquals(27, Long.bitCount(Attacks.queen(27, 0L)));
+	}
+	
+	@Test
+	public void testSlidingAttacksMatchRays() {
+		Random random = new Random(42);
+		
+		for(int i = 0; i < 2000; i++) {
+			long occupied = random.nextLong() & random.nextLong();
+			
+			for(int square = 0; square < 64; square++) {
+				long rook = slide(square, occupied, 1, 0) | slide(square, occupied, -1, 0) |
+						slide(square, occupied, 0, 1) | slide(square, occupied, 0, -1);
+				long bishop = slide(square, occupied, 1, 1) | slide(square, occupied, -1, 1) |
+						slide(square, occupied, 1, -1) | slide(square, occupied, -1, -1);
+				
+				assertEquals(rook, Attacks.rook(square, occupied));
+				assertEquals(bishop, Attacks.bishop(square, occupied));
+			}
+		}
+	}
+}
@@ -0,0 +1,1088 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static com.chess.rules.RuleConstants.*;
+import java.util.List;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.BoardActions;
+import com.chess.board.Cell;
+import com.chess.board.CellColor;
+import com.chess.board.IllegalMoveException;
+import com.chess.board.MoveStatus;
+import com.chess.board.PackedMove;
+import com.chess.board.PieceSquareTables;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+import com.chess.rules.RuleResult;
+
+
+public class BitBoardTest {
+	
+	private void clearBoard(List<Cell> cells){
+		for(Cell cell:cells) {
+			cell.setPiece(null);
+		}
+	}
+	
+	private Cell assignPiece(List<Cell> cells, Piece piece, int xIndex, int yIndex) {
+		Cell cell = getCellByIndex(cells, xIndex, yIndex);
+		cell.setPiece(piece);
+		return cell;
+	}
+	
+	private Cell getCellByIndex(List<Cell> cells, int xIndex, int yIndex) {
+		return cells.get((yIndex-1)*8 + (xIndex - 1));
+	}
+	
+	private void makeMoves(BoardActions board, String... moves) {
+		for(String move:moves) {
+			board.makeMove(move);
+		}
+	}
+	
+	private long perft(BitBoard board, int depth) {
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = board.generateLegalMoves(moves);
+		long nodes = 0;
+		
+		if(depth == 1) {
+			return count;
+		}
+		
+		for(int i = 0; i < count; i++) {
+			board.make(moves[i]);
+			nodes += perft(board, depth - 1);
+			board.unmake();
+		}
+		
+		return nodes;
+	}
+	
+	private boolean contains(int[] moves, int count, int move) {
+		for(int i = 0; i < count; i++) {
+			if(PackedMove.withoutFlags(moves[i]) == move) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private void assertPieceListsMatch(BitBoard board, int depth) {
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = board.generateLegalMoves(moves);
+		
+		for(int piece = 0; piece < 12; piece++) {
+			long squares = 0L;
+			
+			for(int i = 0; i < board.getPieceCount(piece); i++) {
+				squares |= 1L << board.getPieceSquare(piece, i);
+			}
+			
+			assertEquals(board.getPieces(piece), squares);
+			assertEquals(Long.bitCount(squares), board.getPieceCount(piece));
+		}
+		
+		for(int i = 0; i < count && depth > 1; i++) {
+			board.make(moves[i]);
+			assertPieceListsMatch(board, depth - 1);
+			board.unmake();
+		}
+	}
+	
+	private void assertMateMatchesMoveCount(BitBoard board, Player player1, Player player2, int depth) {
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = board.generateLegalMoves(moves);
+		Player mover = board.getSideToMove() == BitBoard.UPPER ? player1 : player2;
+		
+		assertEquals(count == 0 && board.isInCheck(board.getSideToMove()), board.isCheckMate(mover));
+		assertEquals(count == 0 && !board.isInCheck(board.getSideToMove()), board.isStaleMate(mover));
+		
+		for(int i = 0; i < count && depth > 1; i++) {
+			board.make(moves[i]);
+			assertMateMatchesMoveCount(board, player1, player2, depth - 1);
+			board.unmake();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBitBoardWhenPlayer1Null() {
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		new BitBoard(null, player2);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBitBoardWhenSameColor() {
+		Player player1 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		new BitBoard(player1, player2);
+	}
+	
+	@Test
+	public void testBitBoardDefaults() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals(0xFFFFL, board.getOccupancy(BitBoard.UPPER));
+		assertEquals(0xFFFFL << 48, board.getOccupancy(BitBoard.LOWER));
+		assertEquals(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.KING), board.getPieceAt(4));
+		assertEquals(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.QUEEN), board.getPieceAt(59));
+		assertEquals(BitBoard.EMPTY, board.getPieceAt(32));
+		assertFalse(board.kingIsInCheck(player1));
+		assertFalse(board.isCheckMate(player2));
+	}
+	
+	@Test
+	public void testBitBoardOrderedCells() {
+		int upperPieces = 0, lowerPieces = 0;
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		assertSame(cells, board.getOrderedCells());
+		assertSame(64, cells.size());
+		assertSame(CellColor.White, cells.get(0).getColor());
+		assertSame(CellColor.Black, cells.get(7).getColor());
+		assertSame(CellColor.Black, cells.get(8).getColor());
+		assertSame(CellColor.White, cells.get(63).getColor());
+		
+		for(Cell cell:cells) {
+			Piece piece = cell.getPiece();
+			
+			if(piece != null) {
+				if(piece.getPlayer() == player1) {
+					++upperPieces;
+				}
+				else if(piece.getPlayer() == player2) {
+					++lowerPieces;
+				}
+			}
+		}
+		
+		assertSame(16, upperPieces);
+		assertSame(16, lowerPieces);
+		assertSame(Ability.King, getCellByIndex(cells, 5, 1).getPiece().getAbility());
+	}
+	
+	@Test(expected = IllegalMoveException.class)
+	public void testBitBoardWhenMoveMalformed() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		board.makeMove("i2i4");
+	}
+	
+	@Test(expected = IllegalMoveException.class)
+	public void testBitBoardWhenMoveOutOfOrder() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		board.makeMove("g7g6");
+	}
+	
+	@Test(expected = IllegalMoveException.class)
+	public void testBitBoardWhenMovePieceIllegal() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		board.makeMove("a1a3");
+	}
+	
+	@Test
+	public void testBitBoardWhenMoveValid() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		RuleResult result = board.makeMove("B2B4");
+		
+		assertSame(VALID_MOVE, result.getMatchedRule().getId());
+		assertNull(result.getCapturedPiece());
+		assertSame(Ability.Pawn, getCellByIndex(cells, 2, 4).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 2, 2).getPiece());
+		assertEquals(17, board.getEnPassantSquare());
+		assertEquals(BitBoard.LOWER, board.getSideToMove());
+	}
+	
+	@Test
+	public void testBitBoardTryMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		long key = board.getPositionKey();
+		
+		assertEquals(MoveStatus.MALFORMED, board.tryMove(null));
+		assertEquals(MoveStatus.MALFORMED, board.tryMove("e2e"));
+		assertEquals(MoveStatus.MALFORMED, board.tryMove("e2e9"));
+		assertEquals(MoveStatus.NOT_YOUR_PIECE, board.tryMove("e7e5"));
+		assertEquals(MoveStatus.NOT_YOUR_PIECE, board.tryMove("e4e5"));
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove("e2e5"));
+		assertEquals(key, board.getPositionKey());
+		assertEquals(BitBoard.UPPER, board.getSideToMove());
+		
+		assertEquals(MoveStatus.OK, board.tryMove("E2E4"));
+		assertSame(Ability.Pawn, getCellByIndex(cells, 5, 4).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 5, 2).getPiece());
+		assertEquals(BitBoard.LOWER, board.getSideToMove());
+		
+		assertEquals(MoveStatus.OK, board.tryMove("f7f6"));
+		assertEquals(MoveStatus.OK, board.tryMove("d1h5"));
+		
+		key = board.getPositionKey();
+		
+		assertEquals(MoveStatus.LEAVES_KING_IN_CHECK, board.tryMove("a7a6"));
+		assertEquals(key, board.getPositionKey());
+		assertSame(Ability.Pawn, getCellByIndex(cells, 1, 7).getPiece().getAbility());
+		assertEquals(MoveStatus.OK, board.tryMove("g7g6"));
+	}
+	
+	@Test
+	public void testBitBoardTryMoveWhenCastledThroughCheck() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		makeMoves(board, "e2e4", "b7b6", "g1h3", "c8a6", "g2g3", "h7h6", "f1g2", "h6h5");
+		
+		assertEquals(MoveStatus.CASTLES_THROUGH_CHECK, board.tryMove("e1g1"));//The Bishop on a6 watches f1
+		assertEquals(MoveStatus.LEAVES_KING_IN_CHECK, board.tryMove("e1e2"));
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove("e1e3"));
+		assertSame(Ability.King, getCellByIndex(cells, 5, 1).getPiece().getAbility());
+		assertSame(Ability.Rook, getCellByIndex(cells, 8, 1).getPiece().getAbility());
+		assertEquals(MoveStatus.OK, board.tryMove("d2d3"));
+	}
+	
+	@Test
+	public void testBitBoardWhenEnPassant() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "b2b4", "g8h6", "b4b5", "c7c5");
+		
+		List<Cell> cells = board.getOrderedCells();
+		Piece enemy = getCellByIndex(cells, 3, 5).getPiece();
+		RuleResult result = board.makeMove("b5c6");
+		
+		assertSame(EN_PASSANT, result.getMatchedRule().getId());
+		assertSame(enemy, result.getCapturedPiece());
+		assertSame(Ability.Pawn, getCellByIndex(cells, 3, 6).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 3, 5).getPiece());
+	}
+	
+	@Test
+	public void testBitBoardWhenPromotionRequired() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "b2b4", "c7c5", "h2h4", "c5b4", "b1a3", "b4b3", "h4h5", "b3b2", "h5h6");
+		
+		RuleResult result = board.makeMove("b2c1");
+		List<Cell> cells = board.getOrderedCells();
+		
+		assertSame(PROMOTION_REQUIRED, result.getMatchedRule().getId());
+		assertSame(Ability.Bishop, result.getCapturedPiece().getAbility());
+		assertSame(Ability.Queen, getCellByIndex(cells, 3, 1).getPiece().getAbility());
+	}
+	
+	@Test
+	public void testBitBoardWhenPromotedToKnight() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "b2b4", "c7c5", "h2h4", "c5b4", "b1a3", "b4b3", "h4h5", "b3b2", "h5h6");
+		
+		assertEquals(MoveStatus.MALFORMED, board.tryMove("b2b1k"));
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove(PackedMove.of(9, 1, BitBoard.KING)));
+		
+		RuleResult result = board.makeMove("b2c1N");
+		List<Cell> cells = board.getOrderedCells();
+		
+		assertSame(PROMOTION_REQUIRED, result.getMatchedRule().getId());
+		assertSame(Ability.Bishop, result.getCapturedPiece().getAbility());
+		assertSame(Ability.Knight, getCellByIndex(cells, 3, 1).getPiece().getAbility());
+		assertEquals(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.KNIGHT), board.getPieceAt(2));
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove("h6g7q"));//Not a promotion
+		assertEquals(MoveStatus.OK, board.tryMove("h6g7"));
+	}
+	
+	@Test
+	public void testPackedMoveParse() {
+		byte[] line = "1. e7e8n b2b1\n".getBytes();
+		
+		assertEquals(PackedMove.of(12, 28), PackedMove.parse("e2e4"));
+		assertEquals(PackedMove.of(12, 28), PackedMove.parse("E2E4"));
+		assertEquals(PackedMove.of(52, 60, BitBoard.KNIGHT), PackedMove.parse("e7e8n"));
+		assertEquals(PackedMove.of(52, 60, BitBoard.QUEEN), PackedMove.parse(new StringBuilder("e7e8Q")));
+		assertEquals(PackedMove.of(49, 57, BitBoard.KNIGHT), PackedMove.parse(PackedMove.toString(PackedMove.of(49, 57, BitBoard.KNIGHT))));
+		assertEquals(PackedMove.of(6, 21), PackedMove.parse("Nf3 g1f3 e7e5", 4, 8));
+		assertEquals(PackedMove.of(52, 60, BitBoard.KNIGHT), PackedMove.parse(line, 3, 5));
+		assertEquals(PackedMove.of(9, 1), PackedMove.parse(line, 9, 4));
+		
+		assertEquals(PackedMove.NONE, PackedMove.parse(null));
+		assertEquals(PackedMove.NONE, PackedMove.parse("e2e"));
+		assertEquals(PackedMove.NONE, PackedMove.parse("e2e4e5"));
+		assertEquals(PackedMove.NONE, PackedMove.parse("i2e4"));
+		assertEquals(PackedMove.NONE, PackedMove.parse("e0e4"));
+		assertEquals(PackedMove.NONE, PackedMove.parse("e7e8k"));
+		assertEquals(PackedMove.NONE, PackedMove.parse("e7e8 "));
+		assertEquals(PackedMove.NONE, PackedMove.parse(line, 0, 4));
+		assertEquals(PackedMove.NONE, PackedMove.parse(new byte[] { 'e', '7', 'e', '8', (byte)0xEE }, 0, 5));
+	}
+	
+	@Test
+	public void testBitBoardWhenCastle() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		makeMoves(board, "g1h3", "c7c6", "g2g3", "c6c5", "f1g2", "c5c4");
+		
+		RuleResult result = board.makeMove("e1g1");
+		
+		assertSame(CASTLED, result.getMatchedRule().getId());
+		assertNull(result.getCapturedPiece());
+		assertSame(Ability.Rook, getCellByIndex(cells, 6, 1).getPiece().getAbility());
+		assertSame(Ability.King, getCellByIndex(cells, 7, 1).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 8, 1).getPiece());
+	}
+	
+	@Test
+	public void testBitBoardWhenUpperCheckMate() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "e2e4", "e7e5", "h2h3", "f8c5", "b1a3", "d8f6", "g2g3", "f6f2");
+		
+		assertTrue(board.kingIsInCheck(player1));
+		assertTrue(board.isCheckMate(player1));
+		assertFalse(board.isCheckMate(player2));
+	}
+	
+	@Test
+	public void testBitBoardWhenUpperCheck() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "e2e4", "e7e5", "g1h3", "f8c5", "b1a3", "d8f6", "d1e2", "f6f2");
+		
+		assertTrue(board.kingIsInCheck(player1));
+		assertFalse(board.isCheckMate(player1));
+	}
+	
+	@Test
+	public void testBitBoardKingSquares() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		assertEquals(4, board.getKingSquare(BitBoard.UPPER));
+		assertEquals(60, board.getKingSquare(BitBoard.LOWER));
+		
+		makeMoves(board, "e2e4", "e7e5", "e1e2");
+		
+		assertEquals(12, board.getKingSquare(BitBoard.UPPER));
+		
+		board.make(PackedMove.of(60, 52));
+		
+		assertEquals(52, board.getKingSquare(BitBoard.LOWER));
+		assertEquals(52, board.copyPosition().getKingSquare(BitBoard.LOWER));
+		
+		board.unmake();
+		
+		assertEquals(60, board.getKingSquare(BitBoard.LOWER));
+		
+		getCellByIndex(cells, 5, 2).setPiece(null);
+		
+		assertEquals(BitBoard.NO_SQUARE, board.getKingSquare(BitBoard.UPPER));
+		assertFalse(board.isInCheck(BitBoard.UPPER));
+	}
+	
+	@Test
+	public void testBitBoardPieceLists() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals(8, board.getPieceCount(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.PAWN)));
+		assertEquals(1, board.getPieceCount(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.QUEEN)));
+		assertEquals(59, board.getPieceSquare(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.QUEEN), 0));
+		
+		makeMoves(board, "e2e4", "d7d5", "e4d5", "g8f6", "f1b5", "c7c6");
+		assertPieceListsMatch(board, 3);
+		assertPieceListsMatch(board.copyPosition(), 1);
+		
+		getCellByIndex(board.getOrderedCells(), 4, 5).setPiece(null);
+		
+		assertEquals(7, board.getPieceCount(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.PAWN)));
+		assertPieceListsMatch(board, 2);
+	}
+	
+	@Test
+	public void testBitBoardSquareAttacked() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		
+		assertTrue(board.isSquareAttacked(21, BitBoard.UPPER));//f3 by the g1 Knight and pawns
+		assertFalse(board.isSquareAttacked(28, BitBoard.UPPER));
+		assertFalse(board.isSquareAttacked(28, BitBoard.LOWER));
+		
+		makeMoves(board, "e2e4", "d7d5");
+		
+		assertTrue(board.isSquareAttacked(35, BitBoard.UPPER));
+		assertTrue(board.isSquareAttacked(28, BitBoard.LOWER));
+		assertTrue(board.isSquareAttacked(39, BitBoard.UPPER));//h5 by the d1 Queen
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBitBoardSquareAttackedWhenOutOfRange() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		
+		new BitBoard(player1, player2).isSquareAttacked(64, BitBoard.UPPER);
+	}
+	
+	@Test
+	public void testBitBoardWhenStaleMate() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 8, 1);
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 1, 4);
+		assignPiece(cells, new Piece(player2, Ability.Pawn), 1, 5);
+		assignPiece(cells, new Piece(player2, Ability.Queen), 7, 3);
+		assignPiece(cells, new Piece(player2, Ability.King), 1, 8);
+		
+		assertTrue(board.isStaleMate(player1));
+		assertFalse(board.isCheckMate(player1));
+		assertFalse(board.isStaleMate(player2));
+		
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 2, 2);
+		
+		assertFalse(board.isStaleMate(player1));
+	}
+	
+	@Test
+	public void testBitBoardMateMatchesMoveCount() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "e2e4", "e7e5", "d1h5", "b8c6", "f1c4", "g8f6");
+		assertMateMatchesMoveCount(board, player1, player2, 3);
+		
+		makeMoves(board, "h5f7");
+		
+		assertTrue(board.isCheckMate(player2));
+	}
+	
+	@Test
+	public void testBitBoardWhenMoveIntoCheck() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		makeMoves(board, "e2e4", "e7e5", "g1h3", "f8c5", "b1a3", "d8f6", "d1e2", "f6f2");
+		
+		try {
+			board.makeMove("e2e3");
+			fail("moving the queen leaves the king in check");
+		}
+		catch(IllegalMoveException e) {
+			assertNull(getCellByIndex(cells, 5, 3).getPiece());
+			assertSame(Ability.Queen, getCellByIndex(cells, 5, 2).getPiece().getAbility());
+		}
+	}
+	
+	@Test
+	public void testBitBoardWhenCellsChanged() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		clearBoard(cells);
+		
+		assertEquals(0L, board.getOccupied());
+		
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Queen), 5, 2);
+		assignPiece(cells, new Piece(player2, Ability.King), 5, 8);
+		assignPiece(cells, new Piece(player2, Ability.Pawn), 5, 7);
+		
+		assertEquals(4, Long.bitCount(board.getOccupied()));
+		
+		RuleResult result = board.makeMove("e2e7");
+		
+		assertSame(Ability.Pawn, result.getCapturedPiece().getAbility());
+		assertTrue(board.kingIsInCheck(player2));
+		assertSame(Ability.Queen, getCellByIndex(cells, 5, 7).getPiece().getAbility());
+		
+		try {
+			board.makeMove("e8g8");
+			fail("castling is not allowed out of check");
+		}
+		catch(IllegalMoveException e) {
+			assertSame(Ability.King, getCellByIndex(cells, 5, 8).getPiece().getAbility());
+		}
+	}
+	
+	@Test
+	public void testBitBoardGenerateFromStart() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		assertEquals(20, board.generateLegalMoves(moves));
+		assertEquals(20, board.generatePseudoLegalMoves(moves));
+		
+		board.makeMove("e2e4");
+		
+		int count = board.generateLegalMoves(moves);
+		
+		assertEquals(20, count);
+		assertTrue(contains(moves, count, PackedMove.of(52, 36)));
+		assertEquals("e7e5", PackedMove.toString(PackedMove.of(52, 36)));
+	}
+	
+	@Test
+	public void testBitBoardGenerateWhenPinned() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Rook), 5, 2);
+		assignPiece(cells, new Piece(player2, Ability.Rook), 5, 8);
+		assignPiece(cells, new Piece(player2, Ability.King), 1, 8);
+		
+		int count = board.generateLegalMoves(moves);
+		
+		assertEquals(10, count);
+		assertTrue(contains(moves, count, PackedMove.of(12, 60)));
+		assertFalse(contains(moves, count, PackedMove.of(12, 11)));
+		assertEquals(17, board.generatePseudoLegalMoves(moves));
+	}
+	
+	@Test
+	public void testBitBoardGenerateWhenInCheck() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Rook), 1, 2);
+		assignPiece(cells, new Piece(player2, Ability.Rook), 5, 8);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		int count = board.generateLegalMoves(moves);
+		
+		assertEquals(5, count);
+		assertTrue(contains(moves, count, PackedMove.of(8, 12)));
+		assertFalse(contains(moves, count, PackedMove.of(4, 12)));
+	}
+	
+	@Test
+	public void testBitBoardGenerateWhenDoubleCheck() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Queen), 1, 4);
+		assignPiece(cells, new Piece(player2, Ability.Rook), 5, 8);
+		assignPiece(cells, new Piece(player2, Ability.Knight), 4, 3);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		int count = board.generateLegalMoves(moves);
+		
+		assertEquals(3, count);
+		
+		for(int i = 0; i < count; i++) {
+			assertEquals(4, PackedMove.getFrom(moves[i]));
+		}
+	}
+	
+	@Test
+	public void testBitBoardGenerateEnPassant() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		makeMoves(board, "b2b4", "g8h6", "b4b5", "c7c5");
+		
+		assertTrue(contains(moves, board.generateLegalMoves(moves), PackedMove.of(33, 42)));
+	}
+	
+	@Test
+	public void testBitBoardGenerateEnPassantWhenPinned() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 1, 5);
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 2, 5);
+		assignPiece(cells, new Piece(player1, Ability.Knight), 7, 1);
+		assignPiece(cells, new Piece(player2, Ability.Pawn), 3, 7);
+		assignPiece(cells, new Piece(player2, Ability.Rook), 8, 5);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		makeMoves(board, "g1f3", "c7c5");
+		
+		int count = board.generateLegalMoves(moves);
+		
+		assertFalse(contains(moves, count, PackedMove.of(33, 42)));
+		assertTrue(contains(moves, count, PackedMove.of(33, 41)));
+	}
+	
+	@Test
+	public void testBitBoardGeneratePromotions() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int promotions = 0;
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 2, 7);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		int count = board.generateLegalMoves(moves);
+		
+		for(int i = 0; i < count; i++) {
+			if(PackedMove.getFrom(moves[i]) == 49) {
+				++promotions;
+			}
+		}
+		
+		assertEquals(4, promotions);
+		assertTrue(contains(moves, count, PackedMove.of(49, 57, BitBoard.KNIGHT)));
+		assertEquals("b7b8n", PackedMove.toString(PackedMove.of(49, 57, BitBoard.KNIGHT)));
+	}
+	
+	@Test
+	public void testBitBoardGenerateFlags() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new BitBoard(player1, player2);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		makeMoves(board, "b2b4", "g8h6", "b4b5", "c7c5");
+		
+		int count = board.generateLegalMoves(moves);
+		
+		for(int i = 0; i < count; i++) {
+			int move = moves[i];
+			
+			if(PackedMove.withoutFlags(move) == PackedMove.of(33, 42)) {
+				assertTrue(PackedMove.isCapture(move));
+				assertTrue(PackedMove.isEnPassant(move));
+			}
+			else if(PackedMove.withoutFlags(move) == PackedMove.of(11, 27)) {
+				assertEquals(PackedMove.DOUBLE_PUSH, PackedMove.getFlags(move));
+			}
+			else {
+				assertFalse(PackedMove.isCapture(move));
+			}
+			
+			assertFalse(PackedMove.isCastle(move));
+		}
+	}
+	
+	@Test
+	public void testBitBoardGenerateStaged() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		int[] all = new int[BitBoard.MAX_MOVES];
+		int[] captures = new int[BitBoard.MAX_MOVES];
+		int[] quiets = new int[BitBoard.MAX_MOVES];
+		
+		makeMoves(board, "e2e4", "d7d5", "g1f3", "c8e6", "f1b5", "b8c6", "e4e5", "f7f5");
+		
+		int count = board.generatePseudoLegalMoves(all);
+		int captureCount = board.generateCaptures(captures);
+		int quietCount = board.generateQuiets(quiets);
+		
+		assertEquals(count, captureCount + quietCount);
+		
+		for(int i = 0; i < captureCount; i++) {
+			assertTrue(PackedMove.isCapture(captures[i]) || PackedMove.getPromotion(captures[i]) != 0);
+			assertTrue(contains(all, count, PackedMove.withoutFlags(captures[i])));
+		}
+		
+		for(int i = 0; i < quietCount; i++) {
+			assertFalse(PackedMove.isCapture(quiets[i]) || PackedMove.getPromotion(quiets[i]) != 0);
+			assertTrue(contains(all, count, PackedMove.withoutFlags(quiets[i])));
+		}
+		
+		assertTrue(contains(captures, captureCount, PackedMove.of(36, 45)));//e5xf6 en passant
+		assertTrue(contains(captures, captureCount, PackedMove.of(33, 42)));//b5xc6
+		assertTrue(contains(quiets, quietCount, PackedMove.of(4, 6)));//Castles
+	}
+	
+	@Test
+	public void testBitBoardGenerateStagedPromotions() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 2, 7);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		int count = board.generateCaptures(moves);
+		
+		assertEquals(4, count);
+		assertTrue(contains(moves, count, PackedMove.of(49, 57, BitBoard.QUEEN)));
+		assertFalse(contains(moves, board.generateQuiets(moves), PackedMove.of(49, 57, BitBoard.QUEEN)));
+	}
+	
+	@Test
+	public void testBitBoardToPseudoLegalMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals(PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH), board.toPseudoLegalMove(PackedMove.of(12, 28)));
+		assertEquals(PackedMove.of(6, 21), board.toPseudoLegalMove(PackedMove.of(6, 21)));
+		assertEquals(PackedMove.NONE, board.toPseudoLegalMove(PackedMove.of(12, 36)));
+		assertEquals(PackedMove.NONE, board.toPseudoLegalMove(PackedMove.of(52, 44)));//Not their turn
+		assertEquals(PackedMove.NONE, board.toPseudoLegalMove(PackedMove.of(12, 20, BitBoard.QUEEN)));
+		assertEquals(PackedMove.NONE, board.toPseudoLegalMove(PackedMove.NONE));
+		
+		makeMoves(board, "e2e4", "d7d5");
+		
+		assertEquals(PackedMove.of(28, 35, 0, PackedMove.CAPTURE), board.toPseudoLegalMove(PackedMove.of(28, 35)));
+	}
+	
+	@Test
+	public void testBitBoardAttackersOf() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals((1L << 6) | (1L << 12) | (1L << 14), board.attackersOf(21, board.getOccupied()));
+		assertEquals(0L, board.attackersOf(28, board.getOccupied()));
+		assertEquals((1L << 3) | (1L << 59), board.attackersOf(35, board.getOccupied() & ~0x0008000000000800L));
+	}
+	
+	@Test
+	public void testBitBoardMakeUnmake() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals(8902, perft(board, 3));
+		assertEquals(197281, perft(board, 4));
+		assertEquals(0xFFFFL | (0xFFFFL << 48), board.getOccupied());
+		assertEquals(BitBoard.UPPER, board.getSideToMove());
+		assertEquals(15, board.getCastlingRights());
+	}
+	
+	private void assertScoresMatch(BitBoard board) {
+		int middlegame = 0, endgame = 0, phase = 0;
+		
+		for(int square = 0; square < 64; square++) {
+			int piece = board.getPieceAt(square);
+			
+			if(piece != BitBoard.EMPTY) {
+				middlegame += PieceSquareTables.middlegame(piece, square);
+				endgame += PieceSquareTables.endgame(piece, square);
+				phase += PieceSquareTables.phaseOf(piece);
+			}
+		}
+		
+		assertEquals(middlegame, board.getMiddlegameScore());
+		assertEquals(endgame, board.getEndgameScore());
+		assertEquals(phase, board.getPhase());
+	}
+	
+	@Test
+	public void testBitBoardScoresIncremental() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		makeMoves(board, "e2e4", "d7d5", "e4e5", "f7f5", "g1f3", "g8f6", "f1c4", "b8c6");
+		
+		int middlegame = board.getMiddlegameScore(), endgame = board.getEndgameScore();
+		int count = board.generateLegalMoves(moves);
+		
+		assertScoresMatch(board);
+		
+		for(int i = 0; i < count; i++) {//Castles, captures and en passant
+			board.make(moves[i]);
+			assertScoresMatch(board);
+			board.unmake();
+			
+			assertEquals(middlegame, board.getMiddlegameScore());
+			assertEquals(endgame, board.getEndgameScore());
+		}
+	}
+	
+	@Test
+	public void testBitBoardScoresWhenPromoted() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		clearBoard(cells);
+		assignPiece(cells, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells, new Piece(player1, Ability.Pawn), 2, 7);
+		assignPiece(cells, new Piece(player2, Ability.King), 8, 8);
+		
+		assertScoresMatch(board);
+		assertEquals(0, board.getPhase());
+		
+		board.make(PackedMove.of(49, 57, BitBoard.KNIGHT));
+		
+		assertScoresMatch(board);
+		assertEquals(1, board.getPhase());
+		
+		board.unmake();
+		
+		assertScoresMatch(board);
+	}
+	
+	@Test
+	public void testBitBoardUnmakeRestoresState() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "b2b4", "g8h6", "b4b5", "c7c5");
+		
+		long occupied = board.getOccupied(), key = board.getPositionKey();
+		int halfmoveClock = board.getHalfmoveClock();
+		
+		board.make(PackedMove.of(33, 42));//En passant
+		
+		assertEquals(BitBoard.EMPTY, board.getPieceAt(34));
+		assertEquals(BitBoard.NO_SQUARE, board.getEnPassantSquare());
+		assertEquals(BitBoard.LOWER, board.getSideToMove());
+		
+		board.unmake();
+		
+		assertEquals(occupied, board.getOccupied());
+		assertEquals(key, board.getPositionKey());
+		assertEquals(42, board.getEnPassantSquare());
+		assertEquals(halfmoveClock, board.getHalfmoveClock());
+		assertEquals(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.PAWN), board.getPieceAt(34));
+		assertEquals(BitBoard.UPPER, board.getSideToMove());
+	}
+	
+	@Test
+	public void testBitBoardUnmakeCastleAndPromotion() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "g1h3", "b7b5", "g2g3", "b5b4", "f1g2", "b4b3");
+		
+		long occupied = board.getOccupied();
+		
+		board.make(PackedMove.of(4, 6));
+		
+		assertEquals(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.ROOK), board.getPieceAt(5));
+		assertEquals(BitBoard.LOWER_KING_SIDE | BitBoard.LOWER_QUEEN_SIDE, board.getCastlingRights());
+		
+		board.make(PackedMove.of(17, 8));
+		board.make(PackedMove.of(6, 7));
+		board.make(PackedMove.of(8, 1, BitBoard.KNIGHT));
+		
+		assertEquals(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.KNIGHT), board.getPieceAt(1));
+		
+		board.unmake();
+		
+		assertEquals(BitBoard.pieceOf(BitBoard.LOWER, BitBoard.PAWN), board.getPieceAt(8));
+		assertEquals(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.KNIGHT), board.getPieceAt(1));
+		
+		board.unmake();
+		board.unmake();
+		board.unmake();
+		
+		assertEquals(occupied, board.getOccupied());
+		assertEquals(BitBoard.pieceOf(BitBoard.UPPER, BitBoard.ROOK), board.getPieceAt(7));
+		assertEquals(15, board.getCastlingRights());
+	}
+	
+	@Test
+	public void testBitBoardPositionKey() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board1 = new BitBoard(player1, player2);
+		BitBoard board2 = new BitBoard(player1, player2);
+		long start = board1.getPositionKey();
+		
+		assertEquals(start, board2.getPositionKey());
+		
+		makeMoves(board1, "g1f3", "g8f6", "b1c3");
+		makeMoves(board2, "b1c3", "g8f6", "g1f3");
+		
+		assertEquals(board1.getPositionKey(), board2.getPositionKey());
+		assertNotEquals(start, board1.getPositionKey());
+		
+		makeMoves(board1, "f6g8", "c3b1", "g8f6", "f3g1", "f6g8");
+		
+		assertEquals(start, board1.getPositionKey());
+		
+		board1.makeMove("g1f3");
+		
+		assertNotEquals(board1.getPositionKey(), board2.getPositionKey());//Lower is to move
+	}
+	
+	@Test
+	public void testBitBoardPawnKey() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board1 = new BitBoard(player1, player2);
+		BitBoard board2 = new BitBoard(player1, player2);
+		long start = board1.getPawnKey();
+		
+		makeMoves(board1, "g1f3", "b8c6");
+		
+		assertEquals(start, board1.getPawnKey());
+		assertNotEquals(board1.getPositionKey(), board2.getPositionKey());
+		
+		makeMoves(board1, "e2e4");
+		makeMoves(board2, "e2e4", "g8f6", "g1f3");
+		
+		assertNotEquals(start, board1.getPawnKey());
+		assertEquals(board1.getPawnKey(), board2.getPawnKey());
+		
+		board1.make(PackedMove.of(51, 35));
+		board1.unmake();
+		
+		assertEquals(board2.getPawnKey(), board1.getPawnKey());
+	}
+	
+	@Test
+	public void testBitBoardPositionKeyWhenEnPassant() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board1 = new BitBoard(player1, player2);
+		BitBoard board2 = new BitBoard(player1, player2);
+		
+		makeMoves(board1, "g1f3", "d7d6", "f3g1", "d6d5", "e2e4");
+		makeMoves(board2, "e2e3", "d7d5", "e3e4");
+		
+		assertEquals(20, board1.getEnPassantSquare());
+		assertEquals(BitBoard.NO_SQUARE, board2.getEnPassantSquare());
+		assertEquals(board1.getPositionKey(), board2.getPositionKey());//No pawn can take en passant
+		
+		board1 = new BitBoard(player1, player2);
+		board2 = new BitBoard(player1, player2);
+		
+		makeMoves(board1, "e2e4", "a7a6", "e4e5", "d7d5");
+		makeMoves(board2, "e2e3", "a7a6", "e3e4", "d7d6", "e4e5", "d6d5");
+		
+		assertNotEquals(board1.getPositionKey(), board2.getPositionKey());
+	}
+	
+	@Test
+	public void testBitBoardPositionKeyWhenCellsChanged() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board1 = new BitBoard(player1, player2);
+		BitBoard board2 = new BitBoard(player1, player2);
+		List<Cell> cells1 = board1.getOrderedCells(), cells2 = board2.getOrderedCells();
+		
+		clearBoard(cells1);
+		clearBoard(cells2);
+		
+		assignPiece(cells1, new Piece(player1, Ability.King), 5, 1);
+		assignPiece(cells1, new Piece(player2, Ability.King), 5, 8);
+		assignPiece(cells2, new Piece(player2, Ability.King), 5, 8);
+		assignPiece(cells2, new Piece(player1, Ability.Queen), 5, 1);
+		assignPiece(cells2, new Piece(player1, Ability.King), 5, 1);
+		
+		assertEquals(board1.getPositionKey(), board2.getPositionKey());
+	}
+	
+	@Test
+	public void testBitBoardNullMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		makeMoves(board, "e2e4", "g8f6", "e4e5", "d7d5");
+		
+		long key = board.getPositionKey(), occupied = board.getOccupied();
+		int enPassant = board.getEnPassantSquare(), halfmoves = board.getHalfmoveClock();
+		
+		board.makeNullMove();
+		
+		assertEquals(BitBoard.LOWER, board.getSideToMove());
+		assertEquals(BitBoard.NO_SQUARE, board.getEnPassantSquare());
+		assertEquals(occupied, board.getOccupied());
+		assertNotEquals(key, board.getPositionKey());
+		
+		board.makeNullMove();
+		
+		assertEquals(BitBoard.UPPER, board.getSideToMove());
+		assertNotEquals(key, board.getPositionKey());//No en passant any more
+		
+		board.unmake();
+		board.unmake();
+		
+		assertEquals(key, board.getPositionKey());
+		assertEquals(enPassant, board.getEnPassantSquare());
+		assertEquals(halfmoves, board.getHalfmoveClock());
+		assertEquals(BitBoard.UPPER, board.getSideToMove());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testBitBoardUnmakeWhenEmpty() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		board.makeMove("e2e4");
+		board.unmake();
+	}
+}
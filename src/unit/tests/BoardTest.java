@@ -4,11 +4,14 @@ import static org.junit.Assert.*;
 import static com.chess.rules.RuleConstants.*;
 import java.util.List;
 import org.junit.Test;
+import com.chess.board.BitBoard;
 import com.chess.board.Board;
 import com.chess.board.BoardActions;
 import com.chess.board.Cell;
 import com.chess.board.CellColor;
 import com.chess.board.IllegalMoveException;
+import com.chess.board.MoveStatus;
+import com.chess.board.PackedMove;
 import com.chess.pieces.Ability;
 import com.chess.pieces.Piece;
 import com.chess.pieces.Player;
@@ -67,6 +70,36 @@ public class BoardTest {
 		board.isCheckMate(null);
 	}
 	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoardWhenDefaultIsStaleMateNull() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		
+		board.isStaleMate(null);
+	}
+	
+	@Test
+	public void testBoardSquareAttacked() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		
+		assertTrue(board.isSquareAttacked(21, PlayerColor.Upper.ordinal()));
+		assertFalse(board.isSquareAttacked(21, PlayerColor.Lower.ordinal()));
+		assertTrue(board.isSquareAttacked(45, PlayerColor.Lower.ordinal()));
+	}
+	
+	@Test
+	public void testBoardWhenDefaultNotStaleMate() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		
+		assertFalse(board.isStaleMate(player1));
+		assertFalse(board.isStaleMate(player2));
+	}
+	
 	@Test(expected = IllegalMoveException.class)
 	public void testBoardWhenMoveNull() {
 		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
@@ -290,6 +323,89 @@ public class BoardTest {
 		assertNull(result.getCapturedPiece());
 		assertSame(Ability.Rook, getCellByIndex(cells, 6, 1).getPiece().getAbility());
 		assertSame(Ability.King, getCellByIndex(cells, 7, 1).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 8, 1).getPiece());
+		assertSame(Ability.Rook, getCellByIndex(cells, 1, 1).getPiece().getAbility());
+	}
+	
+	@Test
+	public void testBoardHistoryKeepsEveryMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		board.makeMove("g1h3");
+		board.makeMove("g8h6");
+		board.makeMove("h3g1");
+		board.makeMove("h6g8");
+		board.makeMove("g1h3");
+		
+		Piece knight = getCellByIndex(cells, 8, 3).getPiece();
+		
+		assertEquals(3, knight.getHistory().size());
+		assertSame(getCellByIndex(cells, 7, 1), knight.getHistory().get(0).getFromCell());
+		assertSame(getCellByIndex(cells, 7, 1), knight.getHistory().get(1).getToCell());
+		assertSame(getCellByIndex(cells, 8, 3), knight.getHistory().get(2).getToCell());
+	}
+	
+	@Test
+	public void testBoardPositionKey() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		BoardActions bitBoard = new BitBoard(player1, player2);
+		long start = board.getPositionKey();
+		
+		assertEquals(bitBoard.getPositionKey(), start);
+		
+		board.makeMove("e2e4");
+		board.makeMove("d7d5");
+		board.makeMove("e4d5");
+		bitBoard.makeMove("e2e4");
+		bitBoard.makeMove("d7d5");
+		bitBoard.makeMove("e4d5");
+		
+		assertNotEquals(start, board.getPositionKey());
+		assertEquals(bitBoard.getPositionKey(), board.getPositionKey());
+	}
+	
+	@Test
+	public void testBoardGenerateLegalMoves() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		
+		assertEquals(20, board.generateLegalMoves(moves));
+		
+		board.makeMove("g1h3");
+		board.makeMove("c7c6");
+		board.makeMove("g2g3");
+		board.makeMove("c6c5");
+		board.makeMove("f1g2");
+		board.makeMove("c5c4");
+		
+		int count = board.generateLegalMoves(moves);
+		boolean castle = false;
+		
+		for(int i = 0; i < count; i++) {
+			castle |= moves[i] == PackedMove.of(4, 6, 0, PackedMove.CASTLE);
+		}
+		
+		assertTrue(castle);
+		
+		board.makeMove("e1g1");
+		board.makeMove("d7d5");
+		board.makeMove("b2b4");
+		
+		count = board.generateLegalMoves(moves);
+		boolean enPassant = false;
+		
+		for(int i = 0; i < count; i++) {
+			enPassant |= PackedMove.isEnPassant(moves[i]) && PackedMove.getTo(moves[i]) == 17;
+		}
+		
+		assertTrue(enPassant);
 	}
 	
 	@Test
@@ -452,4 +568,106 @@ public class BoardTest {
 			assertSame(Ability.Rook, getCellByIndex(cells, 8, 8).getPiece().getAbility());
 		}
 	}
+	
+	@Test
+	public void testBoardWhenPromotedToRook() {
+		final String[] moves = { "b2b4", "c7c5", "h2h4", "c5b4", "b1a3", "b4b3", "h4h5", "b3b2", "h5h6" };
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		for(String move:moves) {
+			board.makeMove(move);
+		}
+		
+		try {
+			board.makeMove("b2b1p");
+			fail("a pawn cannot be promoted to a pawn");
+		}
+		catch(IllegalMoveException e) {
+			assertSame(Ability.Pawn, getCellByIndex(cells, 2, 2).getPiece().getAbility());
+		}
+		
+		RuleResult result = board.makeMove("b2b1r");
+		
+		assertSame(PROMOTION_REQUIRED, result.getMatchedRule().getId());
+		assertSame(Ability.Rook, getCellByIndex(cells, 2, 1).getPiece().getAbility());
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove("h6g7b"));//Not a promotion
+		assertEquals(MoveStatus.OK, board.tryMove(PackedMove.parse("h6g7")));
+		assertEquals(MoveStatus.OK, board.tryMove("b1b3"));//Moves like a Rook
+	}
+	
+	@Test
+	public void testBoardTryMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		assertEquals(MoveStatus.MALFORMED, board.tryMove("i2i4"));
+		assertEquals(MoveStatus.NOT_YOUR_PIECE, board.tryMove("e7e5"));
+		assertEquals(MoveStatus.ILLEGAL_PATTERN, board.tryMove("g1g3"));
+		assertEquals(MoveStatus.OK, board.tryMove("e2e4"));
+		assertSame(Ability.Pawn, getCellByIndex(cells, 5, 4).getPiece().getAbility());
+		assertNull(getCellByIndex(cells, 5, 2).getPiece());
+		assertEquals(1, getCellByIndex(cells, 5, 4).getPiece().getHistory().size());
+		
+		RuleResult result = board.makeMove("e7e5");//Lower's turn now
+		
+		assertSame(VALID_MOVE, result.getMatchedRule().getId());
+	}
+	
+	@Test
+	public void testBoardTryMoveWhenUpperCastledThroughCheck() {
+		final String[] moves = { "e2e4", "b7b6", "g1h3", "c8a6", "g2g3", "h7h6", "f1g2", "h6h5" };
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BoardActions board = new Board(player1, player2);
+		List<Cell> cells = board.getOrderedCells();
+		
+		for(String move:moves) {
+			assertEquals(MoveStatus.OK, board.tryMove(move));
+		}
+		
+		assertEquals(MoveStatus.CASTLES_THROUGH_CHECK, board.tryMove("e1g1"));//The Bishop on a6 watches f1
+		assertEquals(MoveStatus.LEAVES_KING_IN_CHECK, board.tryMove("e1e2"));
+		assertSame(Ability.King, getCellByIndex(cells, 5, 1).getPiece().getAbility());
+		assertSame(Ability.Rook, getCellByIndex(cells, 8, 1).getPiece().getAbility());
+		assertEquals(MoveStatus.OK, board.tryMove("d2d3"));
+	}
+	
+	@Test
+	public void testBoardRulesAgreeWithMoveGeneration() {
+		final String[][] games = {
+				{},
+				{ "e2e4", "d7d5", "e4e5", "f7f5" },//En passant on f6
+				{ "e2e4", "b7b6", "g1h3", "c8a6", "g2g3", "h7h6", "f1g2", "h6h5" },//Castles through check
+				{ "b2b4", "a7a5", "b4a5", "b7b6", "a5b6", "h7h6", "b6c7", "h6h5" },//Promotes on b8 or d8
+				{ "e2e4", "f7f6", "d1h5" }//Lower is in check
+		};
+		
+		for(String[] game:games) {
+			Board board = TestBoards.play(new Board(TestBoards.PLAYER1, TestBoards.PLAYER2), game);
+			int[] moves = new int[256];
+			boolean[] legal = new boolean[64 * 64];
+			int count = board.generateLegalMoves(moves);
+			
+			for(int i = 0; i < count; i++) {
+				legal[PackedMove.getFrom(moves[i]) * 64 + PackedMove.getTo(moves[i])] = true;
+			}
+			
+			for(int from = 0; from < 64; from++) {
+				for(int to = 0; to < 64; to++) {
+					boolean made = board.tryMove(PackedMove.of(from, to)) == MoveStatus.OK;
+					
+					assertEquals(PackedMove.toString(PackedMove.of(from, to)), legal[from * 64 + to], made);
+					
+					if(made) {
+						board = TestBoards.play(new Board(TestBoards.PLAYER1, TestBoards.PLAYER2), game);
+					}
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,104 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import org.junit.Test;
+import com.chess.board.BoardActions;
+import com.chess.board.PackedMove;
+import com.chess.engine.Engine;
+
+
+public class EngineTest {
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEngineWhenDepthZero() {
+		new Engine(0, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEngineWhenBoardNull() {
+		new Engine(1, 0).bestMove(null);
+	}
+	
+	@Test
+	public void testEngineFindsMateInOne() {
+		BoardActions board = createBoard("f2f3", "e7e5", "g2g4");
+		Engine engine = new Engine(3, 0);
+		int move = engine.bestMove(board);
+		
+		assertEquals("d8h4", PackedMove.toString(move));
+		assertTrue(engine.isMateScore());
+		assertTrue(engine.getScore() > 0);
+	}
+	
+	@Test
+	public void testEngineTakesHangingQueen() {
+		BoardActions board = createBoard("e2e4", "d7d5", "d1g4");
+		long key = board.getPositionKey();
+		Engine engine = new Engine(3, 0);
+		
+		assertEquals("c8g4", Engine.toMoveInput(engine.bestMove(board)));
+		assertEquals(3, engine.getDepth());
+		assertEquals(key, board.getPositionKey());
+	}
+	
+	@Test
+	public void testEngineWhenCheckMated() {
+		BoardActions board = createBoard("f2f3", "e7e5", "g2g4", "d8h4");
+		
+		assertEquals(PackedMove.NONE, new Engine(2, 0).bestMove(board));
+	}
+	
+	@Test
+	public void testEngineStopsOnTime() {
+		BoardActions board = createBoard();
+		Engine engine = new Engine(64, 100);
+		long start = System.nanoTime();
+		int move = engine.bestMove(board);
+		long elapsed = (System.nanoTime() - start) / 1000000L;
+		
+		assertNotEquals(PackedMove.NONE, move);
+		assertTrue(engine.getDepth() >= 1 && engine.getDepth() < 64);
+		assertTrue(elapsed < 1000);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEngineWhenNoThreads() {
+		new Engine(1, 0, 1, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEngineWhenPruningUnknown() {
+		new Engine(1, 0).setPruning(Engine.ALL_PRUNING + 1);
+	}
+	
+	@Test
+	public void testEnginePruning() {
+		Engine pruned = new Engine(6, 0), full = new Engine(6, 0);
+		
+		assertEquals(Engine.ALL_PRUNING, pruned.getPruning());
+		
+		full.setPruning(0);
+		
+		assertEquals(0, full.getPruning());
+		assertEquals("c8g4", Engine.toMoveInput(full.bestMove(createBoard("e2e4", "d7d5", "d1g4"))));
+		assertEquals("c8g4", Engine.toMoveInput(pruned.bestMove(createBoard("e2e4", "d7d5", "d1g4"))));
+		assertTrue(pruned.getNodes() < full.getNodes());
+		assertEquals("d8h4", Engine.toMoveInput(pruned.bestMove(createBoard("f2f3", "e7e5", "g2g4"))));
+		assertTrue(pruned.isMateScore());
+	}
+	
+	@Test
+	public void testEngineWithHelperThreads() {
+		Engine engine = new Engine(4, 0, 4, 4);
+		
+		assertEquals(4, engine.getThreads());
+		assertEquals("d8h4", Engine.toMoveInput(engine.bestMove(createBoard("f2f3", "e7e5", "g2g4"))));
+		assertEquals("c8g4", Engine.toMoveInput(engine.bestMove(createBoard("e2e4", "d7d5", "d1g4"))));
+		
+		engine.shutdown();
+		
+		assertEquals(1, engine.getThreads());
+		assertEquals("c8g4", Engine.toMoveInput(engine.bestMove(createBoard("e2e4", "d7d5", "d1g4"))));
+	}
+}
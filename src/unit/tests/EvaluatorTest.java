@@ -0,0 +1,71 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.engine.Evaluator;
+import com.chess.pieces.Ability;
+
+
+public class EvaluatorTest {
+	/**
+	 * Kings on their starting squares and Upper pawns on the squares given
+	 */
+	private BitBoard createPawnBoard(int... squares) {
+		BitBoard board = createKingsBoard();
+		
+		placePiece(board, PLAYER1, Ability.Pawn, squares);
+		
+		return board;
+	}
+	
+	@Test
+	public void testEvaluatorWhenEven() {
+		Evaluator evaluator = new Evaluator();
+		
+		assertEquals(0, evaluator.evaluate(createBoard()));
+		assertEquals(0, evaluator.evaluate(createBoard("e2e4", "e7e5")));
+		assertEquals(0, evaluator.evaluate(createPawnBoard()));
+	}
+	
+	@Test
+	public void testEvaluatorPassedPawn() {
+		//Material 100, square 50, isolated -15, passed 80, nothing in front 16
+		assertEquals(231, new Evaluator().evaluate(createPawnBoard(40)));
+	}
+	
+	@Test
+	public void testEvaluatorDoubledPawns() {
+		//The pawn behind adds 100 + 30 - 15 + 50 and both are doubled, -20
+		assertEquals(231 + 165 - 20, new Evaluator().evaluate(createPawnBoard(32, 40)));
+	}
+	
+	@Test
+	public void testEvaluatorSideToMove() {
+		BitBoard board = createBoard("e2e4");
+		Evaluator evaluator = new Evaluator();
+		int score = evaluator.evaluate(board);
+		
+		assertTrue(score < 0);
+		assertEquals(score, evaluator.evaluate(board));//From the pawn table
+		assertEquals(-score, evaluator.evaluate(createBoard("g1f3", "e7e5", "f3g1")));
+	}
+	
+	@Test
+	public void testEvaluatorWhenMovesTakenBack() {
+		BitBoard board = createBoard("e2e4", "d7d5");
+		Evaluator evaluator = new Evaluator();
+		int score = evaluator.evaluate(board);
+		int[] moves = new int[BitBoard.MAX_MOVES];
+		int count = board.generateLegalMoves(moves);
+		
+		for(int i = 0; i < count; i++) {
+			board.make(moves[i]);
+			evaluator.evaluate(board);
+			board.unmake();
+		}
+		
+		assertEquals(score, evaluator.evaluate(board));
+	}
+}
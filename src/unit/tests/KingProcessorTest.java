@@ -15,6 +15,7 @@ import com.chess.pieces.Player;
 import com.chess.pieces.PlayerColor;
 import com.chess.pieces.PlayerType;
 import com.chess.rules.KingProcessor;
+import com.chess.rules.PositionState;
 import com.chess.rules.RuleProcessor;
 import com.chess.rules.RuleResult;
 
@@ -134,6 +135,25 @@ public class KingProcessorTest {
 		assertSame(CASTLED, result.getMatchedRule().getId());
 	}
 	
+	@Test
+	public void testKingWhenNoRightOnCastle() {
+		RuleProcessor processor = new KingProcessor();
+		List<Cell> cells = createBoard();
+		Piece player = createPiece(PlayerColor.Upper);
+		Piece rook = createPiece(PlayerColor.Upper);
+		Cell right = assignPiece(cells, player, 5, 1);
+		Cell left = assignPiece(cells, null, 7, 1);
+		
+		assignPiece(cells, rook, 8, 1);
+		
+		Move theMove = new Move(right, left);
+		
+		RuleResult result = processor.GetMoveResult(cells, RuleProcessor.occupancyOf(cells), 
+				PositionState.of(PositionState.UPPER_QUEEN_SIDE, PositionState.NO_SQUARE), theMove);
+		
+		assertNull(result);
+	}
+	
 	@Test
 	public void testKingWhenBlockedOnCastle() {
 		RuleProcessor processor = new KingProcessor();
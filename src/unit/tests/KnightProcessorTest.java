@@ -64,6 +64,18 @@ public class KnightProcessorTest {
 		assertSame(VALID_MOVE, result.getMatchedRule().getId());
 	}
 	
+	@Test
+	public void testKnightWhenAcrossBoard() {
+		RuleProcessor processor = new KnightProcessor();
+		List<Cell> cells = new ArrayList<>();
+		Piece player = createPiece(PlayerColor.Upper);
+		Cell bottom = createCell(player, 1, 1);
+		Cell top = createCell(null, 8, 8);
+		Move theMove = new Move(bottom, top);
+		
+		assertNull(processor.GetMoveResult(cells, theMove));
+	}
+	
 	@Test
 	public void testKnightWhenBlockedOnFour() {
 		RuleProcessor processor = new KnightProcessor();
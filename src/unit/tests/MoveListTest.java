@@ -0,0 +1,61 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.MoveList;
+import com.chess.board.PackedMove;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+
+
+public class MoveListTest {
+	
+	@Test
+	public void testMoveListDefaults() {
+		MoveList list = new MoveList();
+		
+		assertEquals(0, list.size());
+		assertEquals(-1, list.indexOf(PackedMove.of(12, 28)));
+	}
+	
+	@Test
+	public void testMoveListAddAndSwap() {
+		MoveList list = new MoveList();
+		
+		list.add(PackedMove.of(12, 28));
+		list.add(PackedMove.of(6, 21));
+		list.swap(0, 1);
+		
+		assertEquals(2, list.size());
+		assertEquals(PackedMove.of(6, 21), list.get(0));
+		assertEquals(1, list.indexOf(PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH)));
+		
+		list.set(1, PackedMove.of(11, 27));
+		list.clear();
+		
+		assertEquals(0, list.size());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMoveListGetWhenOutOfRange() {
+		MoveList list = new MoveList();
+		
+		list.add(PackedMove.of(12, 28));
+		list.get(1);
+	}
+	
+	@Test
+	public void testMoveListGenerate() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		MoveList list = new MoveList();
+		
+		assertEquals(20, list.generateLegalMoves(board));
+		assertEquals(20, list.size());
+		assertTrue(list.indexOf(PackedMove.of(12, 28)) >= 0);
+		assertEquals(20, list.generatePseudoLegalMoves(board));
+	}
+}
@@ -0,0 +1,102 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+import com.chess.engine.MoveOrder;
+import com.chess.pieces.Ability;
+
+
+public class MoveOrderTest {
+	private static final int HISTORY_MAX = 1 << 20;
+	
+	@Test
+	public void testMoveOrderPawnTakesQueenFirst() {
+		BitBoard board = createKingsBoard();
+		MoveOrder order = new MoveOrder();
+		
+		placePiece(board, PLAYER1, Ability.Queen, 3);
+		placePiece(board, PLAYER1, Ability.Pawn, 28);
+		placePiece(board, PLAYER2, Ability.Pawn, 24);
+		placePiece(board, PLAYER2, Ability.Queen, 35);
+		
+		int pawnTakesQueen = PackedMove.of(28, 35, 0, PackedMove.CAPTURE);
+		int queenTakesPawn = PackedMove.of(3, 24, 0, PackedMove.CAPTURE);
+		
+		assertTrue(order.captureScoreOf(board, pawnTakesQueen) > order.captureScoreOf(board, queenTakesPawn));
+	}
+	
+	@Test
+	public void testMoveOrderKillers() {
+		BitBoard board = createBoard();
+		MoveOrder order = new MoveOrder();
+		int first = PackedMove.of(6, 21), second = PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH);
+		
+		assertEquals(PackedMove.NONE, order.killerOf(3, 0));
+		
+		order.update(board, first, new int[0], 0, 4, 3, PackedMove.NONE);
+		
+		assertEquals(first, order.killerOf(3, 0));
+		assertEquals(PackedMove.NONE, order.killerOf(3, 1));
+		
+		order.update(board, second, new int[0], 0, 4, 3, PackedMove.NONE);
+		
+		assertEquals(PackedMove.withoutFlags(second), order.killerOf(3, 0));//Kept without flags
+		assertEquals(first, order.killerOf(3, 1));
+		
+		order.update(board, second, new int[0], 0, 4, 3, PackedMove.NONE);
+		
+		assertEquals(PackedMove.withoutFlags(second), order.killerOf(3, 0));//Not added twice
+		assertEquals(first, order.killerOf(3, 1));
+		assertEquals(PackedMove.NONE, order.killerOf(2, 0));
+		
+		order.age();
+		
+		assertEquals(PackedMove.NONE, order.killerOf(3, 0));
+		assertEquals(PackedMove.NONE, order.killerOf(3, 1));
+	}
+	
+	@Test
+	public void testMoveOrderHistorySaturates() {
+		BitBoard board = createBoard();
+		MoveOrder order = new MoveOrder();
+		int good = PackedMove.of(6, 21), bad = PackedMove.of(1, 18);
+		int[] quiets = { bad };
+		int previous = 0;
+		
+		for(int i = 0; i < 100000; i++) {
+			order.update(board, good, quiets, 1, 20, 0, PackedMove.NONE);
+			
+			int history = order.historyOf(BitBoard.UPPER, good);
+			
+			assertTrue(history >= previous);
+			assertTrue(history <= HISTORY_MAX);
+			assertTrue(order.historyOf(BitBoard.UPPER, bad) >= -HISTORY_MAX);
+			previous = history;
+		}
+		
+		assertEquals(HISTORY_MAX, order.historyOf(BitBoard.UPPER, good));
+		assertEquals(-HISTORY_MAX, order.historyOf(BitBoard.UPPER, bad));
+		assertEquals(0, order.historyOf(BitBoard.LOWER, good));
+	}
+	
+	@Test
+	public void testMoveOrderCounterMove() {
+		BitBoard board = createBoard("e2e4");
+		MoveOrder order = new MoveOrder();
+		int previous = PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH);
+		int reply = PackedMove.of(52, 36, 0, PackedMove.DOUBLE_PUSH);
+		
+		assertEquals(PackedMove.NONE, order.counterOf(board, previous));
+		
+		order.update(board, reply, new int[0], 0, 4, 1, previous);
+		
+		assertEquals(PackedMove.withoutFlags(reply), order.counterOf(board, previous));
+		assertEquals(PackedMove.withoutFlags(reply), order.counterOf(board, PackedMove.of(11, 28)));//Same piece and square
+		assertEquals(PackedMove.NONE, order.counterOf(board, PackedMove.of(11, 27)));
+		assertEquals(PackedMove.NONE, order.counterOf(board, PackedMove.of(1, 18)));
+		assertEquals(PackedMove.NONE, order.counterOf(board, PackedMove.NONE));
+	}
+}
@@ -1,11 +1,17 @@
 package unit.tests;
 
 import static org.junit.Assert.*;
+import java.util.List;
 import org.junit.Test;
+import com.chess.board.Board;
 import com.chess.board.Move;
+import com.chess.board.PackedMove;
 import com.chess.board.Cell;
 import com.chess.board.CellColor;
 import com.chess.board.Location;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
 
 
 public class MoveTest {
@@ -44,4 +50,19 @@ public class MoveTest {
 		assertSame(to, move.getToCell());
 		assertSame(from, move.getFromCell());
 	}
+	
+	@Test
+	public void testPackedMove() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		List<Cell> cells = new Board(player1, player2).getOrderedCells();
+		int packed = PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH);
+		
+		Move move = new Move(cells, packed);
+		
+		assertSame(cells.get(12), move.getFromCell());
+		assertSame(cells.get(28), move.getToCell());
+		assertEquals(PackedMove.withoutFlags(packed), move.toPackedMove());
+		assertEquals("e2e4", PackedMove.toString(move.toPackedMove()));
+	}
 }
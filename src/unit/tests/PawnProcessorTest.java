@@ -15,6 +15,7 @@ import com.chess.pieces.Player;
 import com.chess.pieces.PlayerColor;
 import com.chess.pieces.PlayerType;
 import com.chess.rules.PawnProcessor;
+import com.chess.rules.PositionState;
 import com.chess.rules.RuleProcessor;
 import com.chess.rules.RuleResult;
 
@@ -25,6 +26,16 @@ public class PawnProcessorTest {
 		return new Piece(player, Ability.Pawn);
 	}
 	
+	private List<Cell> createBoard(){
+		List<Cell> cells = new ArrayList<>();
+		
+		for(int i=0; i < 64; i++) {
+			cells.add(createCell(null, (i % 8) + 1, (i/8) + 1));
+		}
+		
+		return cells;
+	}
+	
 	private Cell createCell(Piece piece, int xIndex, int yIndex) {
 		Cell newCell = new Cell(CellColor.Black, new Location(xIndex, yIndex));
 		newCell.setPiece(piece);
@@ -199,25 +210,41 @@ public class PawnProcessorTest {
 	@Test
 	public void testPawnWhenEnPassant() {
 		RuleProcessor processor = new PawnProcessor();
-		List<Cell> cells = new ArrayList<>();
+		List<Cell> cells = createBoard();
 		Piece player = createPiece(PlayerColor.Lower);
 		Piece enemy = createPiece(PlayerColor.Upper);
-		Cell bottom = createCell(player, 7, 4);
-		Cell top = createCell(null, 8, 3);
+		Cell bottom = cells.get(30);
+		Cell top = cells.get(23);
 		Move theMove = new Move(bottom, top);
-		Cell prevBottom = createCell(enemy, 8, 2);
-		Cell prevTop = createCell(enemy, 8, 4);
-		Move prevMove = new Move(prevBottom, prevTop);
 		
-		processor.setPreviousMove(prevMove);//Have to be careful when setting previous move for pawn
+		bottom.setPiece(player);
+		cells.get(31).setPiece(enemy);//Just moved two from (8, 2)
 		
-		RuleResult result = processor.GetMoveResult(cells, theMove);
+		RuleResult result = processor.GetMoveResult(cells, RuleProcessor.occupancyOf(cells), 
+				PositionState.of(0, 23), theMove);
 		
 		assertNotNull(result);
-		assertNotNull(result.getCapturedPiece());
+		assertSame(enemy, result.getCapturedPiece());
 		assertSame(EN_PASSANT, result.getMatchedRule().getId());
 	}
 	
+	@Test
+	public void testPawnWhenEnPassantTooLate() {
+		RuleProcessor processor = new PawnProcessor();
+		List<Cell> cells = createBoard();
+		Piece player = createPiece(PlayerColor.Lower);
+		Piece enemy = createPiece(PlayerColor.Upper);
+		Move theMove = new Move(cells.get(30), cells.get(23));
+		
+		cells.get(30).setPiece(player);
+		cells.get(31).setPiece(enemy);
+		
+		RuleResult result = processor.GetMoveResult(cells, RuleProcessor.occupancyOf(cells), 
+				PositionState.NONE, theMove);
+		
+		assertNull(result);
+	}
+	
 	@Test
 	public void testPawnWhenNoMove() {
 		RuleProcessor processor = new PawnProcessor();
@@ -0,0 +1,70 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import com.chess.board.Board;
+import com.chess.board.BoardActions;
+import com.chess.board.Perft;
+
+
+public class PerftTest {
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testPerftWhenBoardNull() {
+		Perft.perft(null, 1);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDivideWhenDepthZero() {
+		Perft.divide(createBoard(), 0);
+	}
+	
+	@Test
+	public void testPerftFromStart() {
+		BoardActions board = createBoard();
+		
+		assertEquals(1, Perft.perft(board, 0));
+		assertEquals(20, Perft.perft(board, 1));
+		assertEquals(400, Perft.perft(board, 2));
+		assertEquals(8902, Perft.perft(board, 3));
+		assertEquals(197281, Perft.perft(board, 4));
+	}
+	
+	@Test
+	public void testPerftLeavesBoardAlone() {
+		BoardActions board = createBoard();
+		long key = board.getPositionKey();
+		
+		Perft.perft(board, 3);
+		
+		assertEquals(key, board.getPositionKey());
+		assertEquals(20, Perft.perft(board, 1));
+	}
+	
+	@Test
+	public void testDivide() {
+		BoardActions board = createBoard();
+		Map<String, Long> divide = Perft.divide(board, 3);
+		long nodes = 0;
+		
+		for(long leaves:divide.values()) {
+			nodes += leaves;
+		}
+		
+		assertEquals(20, divide.size());
+		assertEquals(8902, nodes);
+		assertEquals(Long.valueOf(600), divide.get("e2e4"));
+		assertEquals(Long.valueOf(440), divide.get("g1f3"));
+	}
+	
+	@Test
+	public void testParallelPerft() {
+		BoardActions board = play(new Board(PLAYER1, PLAYER2), "e2e4", "d7d5", "e4e5", "f7f5");
+		
+		assertEquals(Perft.perft(board, 4), Perft.parallelPerft(board, 4));
+		assertEquals(Perft.divide(board, 3), Perft.parallelDivide(board, 3, ForkJoinPool.commonPool()));
+	}
+}
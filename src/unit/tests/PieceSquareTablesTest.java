@@ -0,0 +1,82 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.PieceSquareTables;
+import com.chess.engine.Evaluator;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+
+
+public class PieceSquareTablesTest {
+	
+	@Test
+	public void testTablesMirrored() {
+		for(int ability = BitBoard.PAWN; ability <= BitBoard.KING; ability++) {
+			int upper = BitBoard.pieceOf(BitBoard.UPPER, ability), lower = BitBoard.pieceOf(BitBoard.LOWER, ability);
+			
+			for(int square = 0; square < 64; square++) {
+				int mirrored = (7 - square / 8) * 8 + square % 8;
+				
+				assertEquals(PieceSquareTables.middlegame(upper, square), -PieceSquareTables.middlegame(lower, mirrored));
+				assertEquals(PieceSquareTables.endgame(upper, square), -PieceSquareTables.endgame(lower, mirrored));
+			}
+		}
+	}
+	
+	@Test
+	public void testTablesCentralKnight() {
+		int knight = BitBoard.pieceOf(BitBoard.UPPER, BitBoard.KNIGHT);
+		
+		assertTrue(PieceSquareTables.middlegame(knight, 27) > PieceSquareTables.middlegame(knight, 0));
+		assertEquals(320 + 20, PieceSquareTables.middlegame(knight, 27));
+	}
+	
+	@Test
+	public void testTablesMaterial() {
+		assertEquals(100, PieceSquareTables.materialOf(BitBoard.PAWN));
+		assertEquals(900, PieceSquareTables.materialOf(BitBoard.QUEEN));
+		assertEquals(0, PieceSquareTables.materialOf(BitBoard.KING));
+		assertTrue(PieceSquareTables.materialOf(BitBoard.BISHOP) > PieceSquareTables.materialOf(BitBoard.KNIGHT));
+	}
+	
+	@Test
+	public void testTablesKingByPhase() {
+		int king = BitBoard.pieceOf(BitBoard.UPPER, BitBoard.KING);
+		
+		assertTrue(PieceSquareTables.middlegame(king, 6) > PieceSquareTables.middlegame(king, 27));
+		assertTrue(PieceSquareTables.endgame(king, 6) < PieceSquareTables.endgame(king, 27));
+	}
+	
+	@Test
+	public void testTablesStartPosition() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		assertEquals(0, board.getMiddlegameScore());
+		assertEquals(0, board.getEndgameScore());
+		assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+		assertEquals(0, new Evaluator().evaluate(board));
+		
+		board.makeMove("e2e4");
+		
+		assertTrue(new Evaluator().evaluate(board) < 0);//Lower to move, Upper took the center
+	}
+	
+	@Test
+	public void testTablesPhaseWhenPiecesTaken() {
+		Player player1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+		Player player2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+		BitBoard board = new BitBoard(player1, player2);
+		
+		board.makeMove("e2e4");
+		board.makeMove("d7d5");
+		board.makeMove("d1g4");
+		board.makeMove("c8g4");
+		
+		assertEquals(PieceSquareTables.MAX_PHASE - 4, board.getPhase());
+	}
+}
@@ -0,0 +1,65 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import com.chess.board.Cell;
+import com.chess.board.CellColor;
+import com.chess.board.Location;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+import com.chess.rules.PositionState;
+import com.chess.rules.RuleProcessors;
+
+
+public class PositionStateTest {
+	
+	private List<Cell> createBoard(){
+		List<Cell> cells = new ArrayList<>();
+		
+		for(int i=0; i < 64; i++) {
+			cells.add(new Cell(CellColor.Black, new Location((i % 8) + 1, (i/8) + 1)));
+		}
+		
+		return cells;
+	}
+	
+	@Test
+	public void testPositionStateIsShared() {
+		PositionState state = PositionState.of(PositionState.LOWER_KING_SIDE, 20);
+		
+		assertSame(state, PositionState.of(PositionState.LOWER_KING_SIDE, 20));
+		assertEquals(20, state.getEnPassantSquare());
+		assertTrue(state.canCastle(PositionState.LOWER_KING_SIDE));
+		assertFalse(state.canCastle(PositionState.UPPER_KING_SIDE));
+		assertSame(RuleProcessors.of(Ability.Pawn), RuleProcessors.of(Ability.Pawn));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testPositionStateWhenSquareOutOfRange() {
+		PositionState.of(0, 64);
+	}
+	
+	@Test
+	public void testPositionStateFromCells() {
+		List<Cell> cells = createBoard();
+		Player player = new Player(PlayerColor.Upper, PlayerType.Manual, "player");
+		Piece rook = new Piece(player, Ability.Rook);
+		
+		cells.get(4).setPiece(new Piece(player, Ability.King));
+		cells.get(0).setPiece(new Piece(player, Ability.Rook));
+		cells.get(7).setPiece(rook);
+		
+		assertEquals(PositionState.UPPER_KING_SIDE | PositionState.UPPER_QUEEN_SIDE, 
+				PositionState.of(cells).getCastlingRights());
+		
+		rook.getHistory().add(null);
+		
+		assertEquals(PositionState.UPPER_QUEEN_SIDE, PositionState.of(cells).getCastlingRights());
+		assertEquals(PositionState.NO_SQUARE, PositionState.of(cells).getEnPassantSquare());
+	}
+}
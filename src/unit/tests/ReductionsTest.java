@@ -0,0 +1,40 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+import com.chess.engine.MoveOrder;
+import com.chess.engine.Reductions;
+
+
+public class ReductionsTest {
+	
+	@Test
+	public void testReductionsGrowWithDepthAndIndex() {
+		assertEquals(0, Reductions.of(3, 1, 0, false));
+		assertTrue(Reductions.of(12, 30, 0, false) > Reductions.of(6, 30, 0, false));
+		assertTrue(Reductions.of(12, 30, 0, false) > Reductions.of(12, 3, 0, false));
+		assertEquals(Reductions.of(12, 30, 0, false) - 1, Reductions.of(12, 30, 0, true));
+		assertEquals(1, Reductions.of(3, 200, -(1 << 20), false));//Always leaves a ply
+	}
+	
+	@Test
+	public void testReductionsWhenHistoryIsHigh() {
+		BitBoard board = createBoard();
+		MoveOrder order = new MoveOrder();
+		int good = PackedMove.of(6, 21), other = PackedMove.of(1, 18);
+		
+		for(int i = 0; i < 200; i++) {
+			order.update(board, good, new int[0], 0, 20, 0, PackedMove.NONE);
+		}
+		
+		order.age();//Carried into the next search
+		
+		int history = order.historyOf(BitBoard.UPPER, good);
+		
+		assertTrue(Reductions.of(12, 30, history, false) <
+				Reductions.of(12, 30, order.historyOf(BitBoard.UPPER, other), false));
+	}
+}
@@ -14,6 +14,7 @@ import com.chess.pieces.Piece;
 import com.chess.pieces.Player;
 import com.chess.pieces.PlayerColor;
 import com.chess.pieces.PlayerType;
+import com.chess.rules.Direction;
 import com.chess.rules.RookProcessor;
 import com.chess.rules.RuleProcessor;
 import com.chess.rules.RuleResult;
@@ -21,6 +22,12 @@ import com.chess.rules.RuleResult;
 
 public class RookProcessorTest {
 	
+	private static class DirectionProcessor extends RookProcessor {
+		Direction directionOf(PlayerColor color, int deltaX, int deltaY) {
+			return determineDirection(color, deltaX, deltaY);
+		}
+	}
+	
 	private Piece createPiece(PlayerColor color) {
 		Player player = new Player(color, PlayerType.Auto, "player");
 		return new Piece(player, Ability.Rook);
@@ -156,4 +163,17 @@ public class RookProcessorTest {
 		
 		assertNull(result);
 	}
+	
+	@Test
+	public void testRookDirectionTable() {
+		DirectionProcessor processor = new DirectionProcessor();
+		
+		assertSame(Direction.Forward, processor.directionOf(PlayerColor.Upper, 0, 3));
+		assertSame(Direction.Back, processor.directionOf(PlayerColor.Lower, 0, 3));
+		assertSame(Direction.DiagonalUpLeft, processor.directionOf(PlayerColor.Upper, 2, 2));
+		assertSame(Direction.DiagonalDownRight, processor.directionOf(PlayerColor.Lower, 2, 2));
+		assertNull(processor.directionOf(PlayerColor.Upper, 3, 2));
+		assertNull(processor.directionOf(PlayerColor.Upper, 0, 0));
+		assertNull(processor.directionOf(PlayerColor.Lower, 0, 8));
+	}
 }
@@ -0,0 +1,70 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import static unit.tests.TestBoards.*;
+import org.junit.Test;
+import com.chess.board.BitBoard;
+import com.chess.board.PackedMove;
+import com.chess.engine.StaticExchange;
+import com.chess.pieces.Ability;
+
+
+public class StaticExchangeTest {
+	
+	private BitBoard createRookBoard(boolean doubled) {
+		BitBoard board = createKingsBoard();
+		
+		placePiece(board, PLAYER1, Ability.Rook, 8);
+		placePiece(board, PLAYER2, Ability.Pawn, 40);
+		placePiece(board, PLAYER2, Ability.Rook, 56);
+		
+		if(doubled) {
+			placePiece(board, PLAYER1, Ability.Rook, 0);
+		}
+		
+		return board;
+	}
+	
+	@Test
+	public void testExchangeWhenEven() {
+		BitBoard board = createBoard("e2e4", "d7d5");
+		
+		assertEquals(0, new StaticExchange().evaluate(board, PackedMove.of(28, 35, 0, PackedMove.CAPTURE)));
+	}
+	
+	@Test
+	public void testExchangeWhenUndefended() {
+		BitBoard board = createBoard("e2e4", "d7d5", "d1g4");
+		
+		assertEquals(900, new StaticExchange().evaluate(board, PackedMove.of(58, 30, 0, PackedMove.CAPTURE)));
+	}
+	
+	@Test
+	public void testExchangeWhenQueenTakesDefendedPawn() {
+		BitBoard board = createBoard("e2e4", "e7e5", "d1h5", "b8c6");
+		
+		assertEquals(-800, new StaticExchange().evaluate(board, PackedMove.of(39, 53, 0, PackedMove.CAPTURE)));
+	}
+	
+	@Test
+	public void testExchangeWhenKingCannotRetake() {
+		BitBoard board = createBoard("e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6");
+		
+		assertEquals(100, new StaticExchange().evaluate(board, PackedMove.of(39, 53, 0, PackedMove.CAPTURE)));
+	}
+	
+	@Test
+	public void testExchangeWhenXRay() {
+		int move = PackedMove.of(8, 40, 0, PackedMove.CAPTURE);
+		
+		assertEquals(-400, new StaticExchange().evaluate(createRookBoard(false), move));
+		assertEquals(100, new StaticExchange().evaluate(createRookBoard(true), move));
+	}
+	
+	@Test
+	public void testExchangeWhenQuiet() {
+		BitBoard board = createBoard();
+		
+		assertEquals(0, new StaticExchange().evaluate(board, PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH)));
+	}
+}
@@ -0,0 +1,77 @@
+package unit.tests;
+
+import com.chess.board.BitBoard;
+import com.chess.board.BoardActions;
+import com.chess.board.Cell;
+import com.chess.pieces.Ability;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Player;
+import com.chess.pieces.PlayerColor;
+import com.chess.pieces.PlayerType;
+
+/**
+ * TestBoards builds the boards the tests start from, either by playing
+ * moves from the starting position or by placing pieces on an empty board
+ * @author bradley
+ *
+ */
+final class TestBoards {
+	static final Player PLAYER1 = new Player(PlayerColor.Upper, PlayerType.Manual, "player 1");
+	static final Player PLAYER2 = new Player(PlayerColor.Lower, PlayerType.Manual, "player 2");
+	
+	private TestBoards() {
+	}
+	
+	/**
+	 * 
+	 * @param board the board to play on
+	 * @param moves the moves to make, in makeMove form
+	 * @return the board
+	 */
+	static <T extends BoardActions> T play(T board, String... moves) {
+		for(String move:moves) {
+			board.makeMove(move);
+		}
+		
+		return board;
+	}
+	
+	/**
+	 * 
+	 * @param moves the moves to make from the starting position
+	 * @return a bit board of PLAYER1 and PLAYER2 after the moves
+	 */
+	static BitBoard createBoard(String... moves) {
+		return play(new BitBoard(PLAYER1, PLAYER2), moves);
+	}
+	
+	/**
+	 * 
+	 * @return a bit board with only the kings, on their starting squares
+	 */
+	static BitBoard createKingsBoard() {
+		BitBoard board = new BitBoard(PLAYER1, PLAYER2);
+		
+		for(Cell cell:board.getOrderedCells()) {
+			cell.setPiece(null);
+		}
+		
+		placePiece(board, PLAYER1, Ability.King, 4);
+		placePiece(board, PLAYER2, Ability.King, 60);
+		
+		return board;
+	}
+	
+	/**
+	 * 
+	 * @param board the board to place on
+	 * @param player the player the pieces belong to
+	 * @param ability the ability of the pieces
+	 * @param squares the squares to place a new piece on
+	 */
+	static void placePiece(BitBoard board, Player player, Ability ability, int... squares) {
+		for(int square:squares) {
+			board.getOrderedCells().get(square).setPiece(new Piece(player, ability));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package unit.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import com.chess.board.PackedMove;
+import com.chess.engine.TranspositionTable;
+
+
+public class TranspositionTableTest {
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTableWhenSizeZero() {
+		new TranspositionTable(0);
+	}
+	
+	@Test
+	public void testTableSize() {
+		assertEquals(65536, new TranspositionTable(1).size());
+		assertEquals(65536 * 4, new TranspositionTable(5).size());
+	}
+	
+	@Test
+	public void testTableStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1);
+		int move = PackedMove.of(12, 28, 0, PackedMove.DOUBLE_PUSH);
+		
+		assertEquals(0L, table.probe(0x1234567890ABCDEFL));
+		
+		table.store(0x1234567890ABCDEFL, move, -250, 7, TranspositionTable.LOWER_BOUND, 3);
+		
+		long data = table.probe(0x1234567890ABCDEFL);
+		
+		assertEquals(PackedMove.of(12, 28), TranspositionTable.moveOf(data));
+		assertEquals(-250, TranspositionTable.scoreOf(data, 3));
+		assertEquals(7, TranspositionTable.depthOf(data));
+		assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.boundOf(data));
+		assertEquals(0L, table.probe(0x1234567890ABCDEFL ^ (1L << 40)));//Same bucket, other key
+	}
+	
+	@Test
+	public void testTableKeepsMoveWhenNone() {
+		TranspositionTable table = new TranspositionTable(1);
+		
+		table.store(42L, PackedMove.of(1, 18), 10, 2, TranspositionTable.EXACT, 0);
+		table.store(42L, PackedMove.NONE, 5, 3, TranspositionTable.UPPER_BOUND, 0);
+		
+		long data = table.probe(42L);
+		
+		assertEquals(PackedMove.of(1, 18), TranspositionTable.moveOf(data));
+		assertEquals(3, TranspositionTable.depthOf(data));
+	}
+	
+	@Test
+	public void testTableMateScoresFollowPly() {
+		TranspositionTable table = new TranspositionTable(1);
+		
+		table.store(7L, PackedMove.NONE, 32000 - 5, 4, TranspositionTable.EXACT, 2);
+		
+		assertEquals(32000 - 9, TranspositionTable.scoreOf(table.probe(7L), 6));
+	}
+	
+	@Test
+	public void testTableReplacesOldEntriesFirst() {
+		TranspositionTable table = new TranspositionTable(1);
+		long first = 5L, second = 5L | (1L << 32), third = 5L | (2L << 32);//One bucket
+		
+		table.store(first, PackedMove.NONE, 0, 10, TranspositionTable.EXACT, 0);
+		table.newSearch();
+		table.newSearch();
+		table.store(second, PackedMove.NONE, 0, 4, TranspositionTable.EXACT, 0);
+		table.store(third, PackedMove.NONE, 0, 1, TranspositionTable.EXACT, 0);
+		
+		assertEquals(0L, table.probe(first));
+		assertNotEquals(0L, table.probe(second));
+		assertNotEquals(0L, table.probe(third));
+		
+		table.clear();
+		
+		assertEquals(0L, table.probe(second));
+	}
+}